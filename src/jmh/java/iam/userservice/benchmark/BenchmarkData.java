@@ -0,0 +1,30 @@
+package iam.userservice.benchmark;
+
+import iam.userservice.entity.User;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Fixture data shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final OffsetDateTime TIMESTAMP = OffsetDateTime.of(2024, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("john.doe" + id + "@example.com");
+        user.setPhoneNumber("1234567890");
+        user.setCreatedOn(TIMESTAMP);
+        user.setUpdatedOn(TIMESTAMP);
+        user.setVersion(0L);
+        return user;
+    }
+}
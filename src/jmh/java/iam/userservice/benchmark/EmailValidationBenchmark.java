@@ -0,0 +1,53 @@
+package iam.userservice.benchmark;
+
+import iam.userservice.service.UserValidationService;
+import iam.userservice.validation.EmailRule;
+import iam.userservice.validation.UserValidationPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email validation done on every create, update and lookup by email.
+ * Invalid emails are measured too, since rejecting them goes through an exception.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailValidationBenchmark {
+
+    @Param({"john.doe@example.com", "a.very.long.local.part+tag@mail.subdomain.example.co.uk", "not-an-email"})
+    private String email;
+
+    private UserValidationService userValidationService;
+
+    @Setup
+    public void setUp() {
+        userValidationService = new UserValidationService(new UserValidationPipeline(List.of(new EmailRule())));
+    }
+
+    @Benchmark
+    public void validateUserEmail(Blackhole blackhole) {
+        try {
+            userValidationService.validateUserEmail(email);
+            blackhole.consume(true);
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package iam.userservice.benchmark;
+
+import iam.userservice.entity.User;
+import iam.userservice.mapper.UserDto;
+import iam.userservice.mapper.UserFilterDto;
+import iam.userservice.mapper.UserFilterMapper;
+import iam.userservice.mapper.UserFilterMapperImpl;
+import iam.userservice.mapper.UserMapper;
+import iam.userservice.mapper.UserMapperImpl;
+import iam.userservice.util.UserFilterCriteria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct mappings on the read path: entity to UserDto for every returned user,
+ * and the search filter to UserFilterCriteria once per search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final UserFilterMapper userFilterMapper = new UserFilterMapperImpl();
+    private User user;
+    private UserFilterDto filterDto;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user(1L);
+        filterDto = new UserFilterDto()
+                .userIds(List.of(1L, 2L, 3L))
+                .firstNames(List.of("john", "jane"))
+                .emails(List.of("example.com"))
+                .searchText("doe");
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public UserFilterCriteria filterToCriteria() {
+        return userFilterMapper.toCriteria(filterDto);
+    }
+}
@@ -0,0 +1,107 @@
+package iam.userservice.benchmark;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import iam.userservice.config.UserDtoCompactSerializer;
+import iam.userservice.mapper.UserDto;
+import iam.userservice.mapper.UserMapper;
+import iam.userservice.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static iam.userservice.service.UserService.USERS;
+
+/**
+ * Cached users in the Java serialization format used before and in the Compact format of
+ * {@link UserDtoCompactSerializer}: serialization alone and get/put on a single member 'users' map,
+ * which (de)serializes on every call. Bytes per entry are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserCacheSerializationBenchmark {
+
+    private static final int ENTRIES = 10_000;
+
+    @Param({"java", "compact"})
+    private String format;
+
+    private HazelcastInstance hazelcastInstance;
+    private SerializationService serializationService;
+    private IMap<Object, Object> users;
+    private UserDto userDto;
+    private Data userData;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config config = new Config();
+        config.setClusterName("user-cache-serialization-benchmark");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.setProperty("hazelcast.logging.type", "none");
+        if ("compact".equals(format)) {
+            config.getSerializationConfig().getCompactSerializationConfig()
+                    .addSerializer(new UserDtoCompactSerializer());
+        }
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+        serializationService = ((SerializationServiceSupport) hazelcastInstance).getSerializationService();
+        users = hazelcastInstance.getMap(USERS);
+
+        UserMapper userMapper = new UserMapperImpl();
+        for (long id = 1; id <= ENTRIES; id++) {
+            users.set(id, userMapper.toDto(BenchmarkData.user(id)));
+        }
+        userDto = userMapper.toDto(BenchmarkData.user(1));
+        userData = serializationService.toData(userDto);
+
+        System.out.printf("%n%s: %d bytes serialized, %d bytes per entry in the map%n", format,
+                userData.totalSize(), users.getLocalMapStats().getOwnedEntryMemoryCost() / ENTRIES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Benchmark
+    public Data serialize() {
+        return serializationService.toData(userDto);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializationService.toObject(userData);
+    }
+
+    @Benchmark
+    public Object get() {
+        return users.get(ThreadLocalRandom.current().nextLong(1, ENTRIES + 1));
+    }
+
+    @Benchmark
+    public void put() {
+        users.set(ThreadLocalRandom.current().nextLong(1, ENTRIES + 1), userDto);
+    }
+}
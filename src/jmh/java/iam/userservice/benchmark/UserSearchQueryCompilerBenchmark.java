@@ -0,0 +1,129 @@
+package iam.userservice.benchmark;
+
+import iam.userservice.entity.User;
+import iam.userservice.repository.UserSearchQueryCompiler;
+import iam.userservice.repository.UserSearchQueryCompiler.SearchQuery;
+import iam.userservice.util.UserFilterCriteria;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * A search query from criteria to executed SQL with {@link UserSearchQueryCompiler}: looking up the JPQL compiled
+ * for the shape of the criteria, and running it, with its SQL translation served by Hibernate's query plan cache.
+ * The SessionFactory runs on a stub DataSource returning empty results, so no database time is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSearchQueryCompilerBenchmark {
+
+    /* Number of values per filtered field */
+    @Param({"1", "10", "100"})
+    private int valuesPerField;
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private UserFilterCriteria criteria;
+    private UserSearchQueryCompiler compiler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.dialect", PostgreSQLDialect.class.getName())
+                .applySetting("hibernate.boot.allow_jdbc_metadata_access", false)
+                .applySetting("hibernate.hbm2ddl.auto", "none")
+                .applySetting("hibernate.connection.datasource", stubDataSource())
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(User.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        session = sessionFactory.openSession();
+
+        List<String> names = LongStream.range(0, valuesPerField).mapToObj(i -> "name_" + i).toList();
+        criteria = new UserFilterCriteria();
+        criteria.setUserIds(LongStream.range(1, valuesPerField + 1).boxed().toList());
+        criteria.setFirstNames(names);
+        criteria.setLastNames(names);
+        criteria.setEmails(names);
+        compiler = new UserSearchQueryCompiler();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public SearchQuery compile() {
+        return compiler.compile(criteria, Sort.unsorted());
+    }
+
+    @Benchmark
+    public List<User> compiledQuery() {
+        SearchQuery searchQuery = compiler.compile(criteria, Sort.unsorted());
+        Query<User> query = session.createQuery(searchQuery.select(), User.class);
+        searchQuery.bind(query, criteria);
+        return query.setMaxResults(20).getResultList();
+    }
+
+    /* JDBC objects answering every call with a default, result sets are empty */
+    private static DataSource stubDataSource() {
+        ResultSet resultSet = stub(ResultSet.class, null);
+        PreparedStatement statement = stub(PreparedStatement.class, resultSet);
+        Connection connection = stub(Connection.class, statement);
+        return stub(DataSource.class, connection);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Object returned) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            if (returned != null && returnType.isInstance(returned)) {
+                return returned;
+            }
+            if (returnType == boolean.class) {
+                return false;
+            }
+            if (returnType == int.class) {
+                return 0;
+            }
+            if (returnType == long.class) {
+                return 0L;
+            }
+            return null;
+        });
+    }
+}
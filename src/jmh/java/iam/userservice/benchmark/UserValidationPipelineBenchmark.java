@@ -0,0 +1,59 @@
+package iam.userservice.benchmark;
+
+import iam.userservice.mapper.UserRequestDto;
+import iam.userservice.validation.EmailRule;
+import iam.userservice.validation.NameRule;
+import iam.userservice.validation.PhoneNumberRule;
+import iam.userservice.validation.UserValidationPipeline;
+import iam.userservice.validation.UserViolation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of batch validation over batches of the bulk endpoints' maximum size.
+ * One in a hundred users is invalid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserValidationPipelineBenchmark {
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private UserValidationPipeline pipeline;
+    private List<UserRequestDto> batch;
+
+    @Setup
+    public void setUp() {
+        pipeline = new UserValidationPipeline(List.of(new EmailRule(), new NameRule(), new PhoneNumberRule()));
+        batch = IntStream.range(0, batchSize)
+                .mapToObj(i -> new UserRequestDto(
+                        "John",
+                        i % 100 == 0 ? "D" : "Doe",
+                        "john.doe" + i + "@example.com",
+                        "44207946" + String.format("%04d", i % 10_000)))
+                .toList();
+    }
+
+    @Benchmark
+    public List<UserViolation> validateAll() {
+        return pipeline.validateAll(batch);
+    }
+}
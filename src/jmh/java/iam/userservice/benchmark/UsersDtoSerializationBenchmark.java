@@ -0,0 +1,56 @@
+package iam.userservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import iam.userservice.mapper.UserMapper;
+import iam.userservice.mapper.UserMapperImpl;
+import iam.userservice.mapper.UsersDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serialization of a page of users, as written by the list and search endpoints.
+ * The ObjectMapper is configured like the one Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UsersDtoSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private UsersDto usersDto;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(UsersDto.class);
+        UserMapper userMapper = new UserMapperImpl();
+        usersDto = new UsersDto()
+                .content(LongStream.rangeClosed(1, pageSize).mapToObj(BenchmarkData::user).map(userMapper::toDto).toList())
+                .totalElements(10_000L)
+                .totalPages(10_000 / pageSize);
+    }
+
+    @Benchmark
+    public byte[] writeUsersDto() throws JsonProcessingException {
+        return writer.writeValueAsBytes(usersDto);
+    }
+}
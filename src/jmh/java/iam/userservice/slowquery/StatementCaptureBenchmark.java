@@ -0,0 +1,96 @@
+package iam.userservice.slowquery;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost {@link StatementCapture} adds to a query: checking out a connection, preparing, binding and executing
+ * a statement, on the pool's DataSource directly and through the wrapper, outside and inside a recording.
+ * In the same package as StatementCapture, which is package-private. The JDBC objects are stubs doing nothing,
+ * so the scores are the wrapper's overhead plus a constant cost of the stubs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementCaptureBenchmark {
+
+    private static final String SQL = "select u1_0.id from users u1_0 where lower(u1_0.first_name) like ? escape '\\' "
+            + "or lower(u1_0.first_name) like ? escape '\\' offset ? rows fetch first ? rows only";
+
+    private final DataSource pool = stubDataSource();
+    private final DataSource wrapped = StatementCapture.wrap(pool);
+
+    @Benchmark
+    public ResultSet unwrapped() throws SQLException {
+        return query(pool);
+    }
+
+    @Benchmark
+    public ResultSet wrapped() throws SQLException {
+        return query(wrapped);
+    }
+
+    @Benchmark
+    public ResultSet wrappedRecording() throws SQLException {
+        StatementCapture.begin();
+        try {
+            return query(wrapped);
+        } finally {
+            StatementCapture.end();
+        }
+    }
+
+    private static ResultSet query(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SQL)) {
+            statement.setString(1, "%jo%");
+            statement.setString(2, "%ja%");
+            statement.setInt(3, 0);
+            statement.setInt(4, 20);
+            return statement.executeQuery();
+        }
+    }
+
+    /* JDBC objects answering every call with a default */
+    private static DataSource stubDataSource() {
+        ResultSet resultSet = stub(ResultSet.class, null);
+        PreparedStatement statement = stub(PreparedStatement.class, resultSet);
+        Connection connection = stub(Connection.class, statement);
+        return stub(DataSource.class, connection);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Object returned) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            if (returned != null && returnType.isInstance(returned)) {
+                return returned;
+            }
+            if (returnType == boolean.class) {
+                return false;
+            }
+            if (returnType == int.class) {
+                return 0;
+            }
+            return null;
+        });
+    }
+}
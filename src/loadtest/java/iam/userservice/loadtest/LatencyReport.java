@@ -0,0 +1,90 @@
+package iam.userservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency of every measured request per operation, in microseconds, and reports
+ * throughput and p50/p99/p999 per operation as a table and as JSON.
+ */
+public class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    public LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void record(Operation operation, long latencyNanos, boolean success) {
+        histograms.get(operation).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * @param measuredSeconds length of the measurement phase, warm-up excluded
+     * @return per operation: count, errors, throughput (req/s) and latencies (ms)
+     */
+    public Map<String, Map<String, Object>> summary(double measuredSeconds) {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        histograms.forEach((operation, histogram) -> {
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", histogram.getTotalCount());
+            stats.put("errors", errors.get(operation).sum());
+            stats.put("throughput", round(histogram.getTotalCount() / measuredSeconds));
+            stats.put("p50", millis(histogram.getValueAtPercentile(50)));
+            stats.put("p99", millis(histogram.getValueAtPercentile(99)));
+            stats.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+            stats.put("max", millis(histogram.getMaxValue()));
+            summary.put(operation.label(), stats);
+        });
+        return summary;
+    }
+
+    public void print(PrintStream out, Map<String, Map<String, Object>> summary) {
+        out.printf("%-16s %10s %8s %12s %10s %10s %10s %10s%n", "operation", "count", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        summary.forEach((operation, stats) -> out.printf("%-16s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f%n",
+                operation, stats.get("count"), stats.get("errors"), stats.get("throughput"),
+                stats.get("p50"), stats.get("p99"), stats.get("p999"), stats.get("max")));
+    }
+
+    public void write(Path file, Map<String, Object> config, Map<String, Map<String, Object>> summary) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("operations", summary);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,23 @@
+package iam.userservice.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What the operations need to build requests: where the service runs and which users exist.
+ *
+ * @param baseUrl     e.g. http://localhost:8080/api/v1
+ * @param generator   the generator the table was seeded with
+ * @param seededUsers number of seeded users, ids 1 to seededUsers exist
+ * @param nextNewUser index of the next user to create, beyond the seeded ones
+ */
+public record LoadContext(String baseUrl, UserDataGenerator generator, long seededUsers, AtomicLong nextNewUser) {
+
+    long existingUser() {
+        return ThreadLocalRandom.current().nextLong(1, seededUsers + 1);
+    }
+
+    long newUser() {
+        return nextNewUser.getAndIncrement();
+    }
+}
@@ -0,0 +1,144 @@
+package iam.userservice.loadtest;
+
+import iam.userservice.TestUserServiceApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Closed-loop load test of the user endpoints against a Testcontainers Postgres.
+ * <p>
+ * Boots the service with {@link TestUserServiceApplication}, seeds it with {@link UserDataGenerator},
+ * then has a fixed number of workers each send one request after the other, picked from the scenario mix,
+ * for the warm-up and measurement periods. Only the measurement period is reported.
+ * <p>
+ * Configured with system properties:
+ * <ul>
+ *     <li>loadtest.users - users seeded before the run (default 1000000)</li>
+ *     <li>loadtest.seed - generator seed, keep it fixed to compare runs (default 42)</li>
+ *     <li>loadtest.concurrency - concurrent workers (default 32)</li>
+ *     <li>loadtest.warmup / loadtest.duration - seconds of warm-up and measurement (default 30 / 60)</li>
+ *     <li>loadtest.mix - weighted operations (default {@value #DEFAULT_MIX})</li>
+ *     <li>loadtest.report - JSON report file (default target/loadtest-report.json)</li>
+ * </ul>
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    static final String DEFAULT_MIX = "getUser:40,getUserByEmail:25,searchUsers:20,createUser:5,updateUser:10";
+    private static final String API_BASE_PATH = "/api/v1";
+
+    public static void main(String[] args) throws Exception {
+        long users = Long.getLong("loadtest.users", 1_000_000L);
+        long seed = Long.getLong("loadtest.seed", 42L);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup", 30);
+        int durationSeconds = Integer.getInteger("loadtest.duration", 60);
+        ScenarioMix mix = ScenarioMix.parse(System.getProperty("loadtest.mix", DEFAULT_MIX));
+        Path reportFile = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+        // A devtools restart would rerun main mid-seed, with the arguments below already added
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Command line arguments, so they win over application.properties.
+        // Updates keep the email and nothing else publishes, so the run doesn't need RabbitMQ
+        String[] applicationArgs = Stream.concat(Stream.of(
+                        "--server.port=0",
+                        "--spring.docker.compose.enabled=false",
+                        "--spring.rabbitmq.listener.simple.auto-startup=false",
+                        "--logging.level.root=WARN"), Arrays.stream(args))
+                .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestUserServiceApplication.class)
+                .run(applicationArgs)) {
+
+            UserDataGenerator generator = new UserDataGenerator(seed);
+            generator.seed(context.getBean(DataSource.class), users);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadContext loadContext = new LoadContext("http://localhost:" + port + API_BASE_PATH, generator, users,
+                    new AtomicLong(users + 1));
+
+            LatencyReport report = new LatencyReport();
+            run(loadContext, mix, report, concurrency, warmupSeconds, durationSeconds);
+
+            Map<String, Map<String, Object>> summary = report.summary(durationSeconds);
+            report.print(System.out, summary);
+
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("users", users);
+            config.put("seed", seed);
+            config.put("concurrency", concurrency);
+            config.put("warmupSeconds", warmupSeconds);
+            config.put("durationSeconds", durationSeconds);
+            config.put("mix", mix.toString());
+            report.write(reportFile, config, summary);
+            log.info("Load test report written to {}", reportFile.toAbsolutePath());
+        }
+    }
+
+    static void run(LoadContext context, ScenarioMix mix, LatencyReport report,
+                    int concurrency, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(workers)
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        log.info("Running {} workers with mix {} for {}s warm-up and {}s measurement", concurrency, mix, warmupSeconds, durationSeconds);
+
+        List<Thread> threads = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread thread = new Thread(() -> work(client, context, mix, report, measureFrom, end), "loadtest-worker-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        workers.shutdownNow();
+    }
+
+    private static void work(HttpClient client, LoadContext context, ScenarioMix mix, LatencyReport report,
+                             long measureFrom, long end) {
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = mix.next();
+            HttpRequest request = operation.request(context);
+            boolean success;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                success = response.statusCode() < 400;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.debug("{} failed: {}", operation.label(), e.getMessage());
+                success = false;
+            }
+            if (now >= measureFrom) {
+                report.record(operation, System.nanoTime() - now, success);
+            }
+        }
+    }
+}
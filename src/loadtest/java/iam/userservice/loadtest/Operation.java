@@ -0,0 +1,97 @@
+package iam.userservice.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The operations a scenario mix is made of, each building a request against the seeded data set.
+ */
+public enum Operation {
+
+    GET_USER("getUser") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return get(context, "/users/" + context.existingUser());
+        }
+    },
+    GET_USER_BY_EMAIL("getUserByEmail") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            String email = context.generator().email(context.existingUser());
+            return get(context, "/users/email?userEmail=" + URLEncoder.encode(email, StandardCharsets.UTF_8));
+        }
+    },
+    SEARCH_USERS("searchUsers") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            // Mostly a last name fragment, sometimes a first name filter on top, like the search page does
+            long n = context.existingUser();
+            String lastName = context.generator().lastName(n);
+            String searchText = lastName.substring(0, Math.min(lastName.length(), 4)).toLowerCase();
+            String body = ThreadLocalRandom.current().nextInt(4) == 0
+                    ? "{\"searchText\":\"%s\",\"firstNames\":[\"%s\"]}".formatted(searchText, context.generator().firstName(n))
+                    : "{\"searchText\":\"%s\"}".formatted(searchText);
+            return json(context, "/users/search?pageNo=0&pageSize=10", "POST", body);
+        }
+    },
+    CREATE_USER("createUser") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return json(context, "/users", "POST", userJson(context, context.newUser()));
+        }
+    },
+    UPDATE_USER("updateUser") {
+        @Override
+        HttpRequest request(LoadContext context) {
+            // Keeps the email, so no email update event is published and RabbitMQ isn't needed
+            long n = context.existingUser();
+            return json(context, "/users/" + n, "PUT", userJson(context, n));
+        }
+    };
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    abstract HttpRequest request(LoadContext context);
+
+    static Operation fromLabel(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + label + "'");
+    }
+
+    private static String userJson(LoadContext context, long n) {
+        UserDataGenerator generator = context.generator();
+        return "{\"firstName\":\"%s\",\"lastName\":\"%s\",\"email\":\"%s\",\"phoneNumber\":\"%s\"}".formatted(
+                generator.firstName(n), generator.lastName(n), generator.email(n),
+                String.format("233%09d", ThreadLocalRandom.current().nextLong(1_000_000_000L)));
+    }
+
+    private static HttpRequest get(LoadContext context, String path) {
+        return HttpRequest.newBuilder(URI.create(context.baseUrl() + path))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest json(LoadContext context, String path, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(context.baseUrl() + path))
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package iam.userservice.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted choice of operations, parsed from e.g. "getUser:40,getUserByEmail:25,searchUsers:20,createUser:5,updateUser:10".
+ */
+public final class ScenarioMix {
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, Integer> weights;
+
+    private ScenarioMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Scenario mix needs at least one positive weight");
+        }
+    }
+
+    public static ScenarioMix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected <operation>:<weight> but got '" + entry + "'");
+            }
+            weights.put(Operation.fromLabel(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return new ScenarioMix(weights);
+    }
+
+    public Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    public Map<Operation, Integer> weights() {
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder mix = new StringBuilder();
+        weights.forEach((operation, weight) -> mix.append(mix.isEmpty() ? "" : ",").append(operation.label()).append(':').append(weight));
+        return mix.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package iam.userservice.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+/**
+ * Generates realistic, reproducible users and bulk loads them with COPY.
+ * <p>
+ * User n (1-based) is a pure function of n, so scenarios can pick an existing id or email without
+ * holding the data set in memory. Seeding a fresh table makes the BIGSERIAL id of user n equal to n.
+ */
+@Slf4j
+public class UserDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Kwame", "Ama", "Kofi", "Akosua", "Yaw", "Abena", "Isaac", "Esi", "Chinedu", "Ngozi",
+            "Mohammed", "Fatima", "Wei", "Mei", "Hiroshi", "Yuki", "Raj", "Priya", "Carlos", "Sofia"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Mensah", "Asante", "Owusu", "Boateng", "Afrifa", "Okafor", "Adeyemi", "Nwosu", "Khan", "Ali",
+            "Wang", "Li", "Zhang", "Tanaka", "Suzuki", "Patel", "Sharma", "Silva", "Santos", "Rossi"
+    };
+    private static final String[] DOMAINS = {
+            "gmail.com", "yahoo.com", "outlook.com", "hotmail.com", "icloud.com", "proton.me", "example.org", "corp.io"
+    };
+    private static final OffsetDateTime EPOCH = OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final long FIVE_YEARS_IN_SECONDS = 5L * 365 * 24 * 3600;
+
+    private final long seed;
+
+    public UserDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public String firstName(long n) {
+        return FIRST_NAMES[(int) (mix(n, 1) % FIRST_NAMES.length)];
+    }
+
+    public String lastName(long n) {
+        return LAST_NAMES[(int) (mix(n, 2) % LAST_NAMES.length)];
+    }
+
+    /* Unique thanks to the n suffix, at most 50 characters as required by the API */
+    public String email(long n) {
+        return (firstName(n) + "." + lastName(n) + n + "@" + DOMAINS[(int) (mix(n, 3) % DOMAINS.length)]).toLowerCase();
+    }
+
+    public String phoneNumber(long n) {
+        return String.format("233%09d", mix(n, 4) % 1_000_000_000L);
+    }
+
+    public OffsetDateTime createdOn(long n) {
+        return EPOCH.plusSeconds(mix(n, 5) % FIVE_YEARS_IN_SECONDS);
+    }
+
+    /**
+     * Truncates the users table and streams {@code count} users into it with a single COPY.
+     */
+    public void seed(DataSource dataSource, long count) throws SQLException, IOException {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("TRUNCATE users RESTART IDENTITY");
+            }
+            long copied = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                    "COPY users (email, first_name, last_name, phone_number, created_on, updated_on, version) FROM STDIN WITH (FORMAT csv)",
+                    new CsvReader(count));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users");
+            }
+            log.info("Seeded {} users in {} ms", copied, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private long mix(long n, long salt) {
+        // SplittableRandom gives a well distributed, reproducible value per (seed, n, salt)
+        return new SplittableRandom(seed ^ (n * 0x9E3779B97F4A7C15L) ^ salt).nextLong(Long.MAX_VALUE);
+    }
+
+    /* Produces the CSV rows lazily, so millions of users never sit in memory at once */
+    private final class CsvReader extends Reader {
+
+        private final long count;
+        private long next = 1;
+        private String row = "";
+        private int position;
+
+        private CsvReader(long count) {
+            this.count = count;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int read = 0;
+            while (read < length) {
+                if (position == row.length()) {
+                    if (next > count) {
+                        return read == 0 ? -1 : read;
+                    }
+                    row = row(next++);
+                    position = 0;
+                }
+                int chunk = Math.min(length - read, row.length() - position);
+                row.getChars(position, position + chunk, buffer, offset + read);
+                position += chunk;
+                read += chunk;
+            }
+            return read;
+        }
+
+        private String row(long n) {
+            String createdOn = createdOn(n).toString();
+            return email(n) + ',' + firstName(n) + ',' + lastName(n) + ',' + phoneNumber(n) + ','
+                    + createdOn + ',' + createdOn + ",0\n";
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+}
@@ -1,17 +1,31 @@
 package iam.userservice;
 
+import iam.userservice.config.UserServiceRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.Ordered;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @SpringBootApplication
 @EnableJpaAuditing
-@EnableCaching
+/*
+ Caching is applied before any other advice, so cache hits skip the transaction and the 'user.service' observation,
+ and @CachePut only stores results of committed transactions.
+ */
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@ImportRuntimeHints(UserServiceRuntimeHints.class)
 public class UserServiceApplication {
 
+    /* Enough for every bean and context phase, see GET /actuator/startup */
+    private static final int STARTUP_STEPS_CAPACITY = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(UserServiceApplication.class, args);
+        SpringApplication application = new SpringApplication(UserServiceApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+        application.run(args);
     }
 
 }
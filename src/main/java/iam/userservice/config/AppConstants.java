@@ -9,7 +9,7 @@ public class AppConstants {
         // Explicitly declaring private constructor to prevent Java from adding a default public constructor
     }
 
-    // Field name constants for building dynamic specifications and queries.
+    // Field name constants for building dynamic search queries.
     public static final String FIRST_NAME_FIELD = "firstName";
     public static final String LAST_NAME_FIELD = "lastName";
     public static final String EMAIL_FIELD = "email";
@@ -1,60 +1,103 @@
 package iam.userservice.config;
 
 import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.EntryEventType;
 import com.hazelcast.core.EntryListener;
 import com.hazelcast.map.MapEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
 import static iam.userservice.service.UserService.USERS;
 
+/**
+ * Telemetry of the 'users' map's entry events. It's registered as a local listener without values,
+ * so each member only sees the events of the entries it owns and no user is serialized for it.
+ * <p>
+ * 'user.cache.events' counts the events, tagged with the event type. Summed over members, that's the
+ * cluster's total. A fraction ('user.cache.events.log-sample-rate') of the entry events is logged at DEBUG,
+ * since logging each of them on Hazelcast's event threads costs more than the event itself.
+ */
 @Component
 @Slf4j
 public class CacheListener implements EntryListener<Object, Object> {
 
+    static final String EVENTS_METRIC = "user.cache.events";
+
+    private final Map<EntryEventType, Counter> counters = new EnumMap<>(EntryEventType.class);
+    private final double logSampleRate;
+
+    public CacheListener(MeterRegistry meterRegistry,
+                         @Value("${user.cache.events.log-sample-rate:0.01}") double logSampleRate) {
+        for (EntryEventType type : new EntryEventType[]{EntryEventType.ADDED, EntryEventType.UPDATED,
+                EntryEventType.REMOVED, EntryEventType.EVICTED, EntryEventType.EXPIRED,
+                EntryEventType.CLEAR_ALL, EntryEventType.EVICT_ALL}) {
+            counters.put(type, Counter.builder(EVENTS_METRIC)
+                    .tag("cache", USERS)
+                    .tag("event", type.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.logSampleRate = logSampleRate;
+    }
+
     @Override
     public void entryAdded(EntryEvent<Object, Object> entryEvent) {
-        logEntryEvent("has been added", entryEvent);
+        onEntryEvent("has been added", entryEvent);
     }
 
     @Override
     public void entryEvicted(EntryEvent<Object, Object> entryEvent) {
-        logEntryEvent("has been evicted", entryEvent);
+        onEntryEvent("has been evicted", entryEvent);
     }
 
     @Override
     public void entryExpired(EntryEvent<Object, Object> entryEvent) {
-        logEntryEvent("has expired", entryEvent);
+        onEntryEvent("has expired", entryEvent);
     }
 
     @Override
     public void entryRemoved(EntryEvent<Object, Object> entryEvent) {
-        logEntryEvent("has been removed", entryEvent);
+        onEntryEvent("has been removed", entryEvent);
     }
 
     @Override
     public void entryUpdated(EntryEvent<Object, Object> entryEvent) {
-        logEntryEvent("has been updated", entryEvent);
+        onEntryEvent("has been updated", entryEvent);
     }
 
     @Override
     public void mapCleared(MapEvent mapEvent) {
+        counters.get(EntryEventType.CLEAR_ALL).increment();
         log.info("Cache has been cleared: {}", mapEvent.getName());
     }
 
     @Override
     public void mapEvicted(MapEvent mapEvent) {
+        counters.get(EntryEventType.EVICT_ALL).increment();
         log.info("Cache has been evicted: {}", mapEvent.getName());
     }
 
-    private void logEntryEvent(String action, EntryEvent<Object, Object> event) {
-        String keyType = USERS.equals(event.getName()) ? "key= userId" : "key";
-        log.info("Cache entry {} [map= '{}', {} '{}']",
-                action,
-                event.getName(),
-                keyType,
-                event.getKey());
+    /**
+     * @return the number of events this member has seen, by event type
+     */
+    public Map<String, Long> eventCounts() {
+        Map<String, Long> eventCounts = new LinkedHashMap<>();
+        counters.forEach((type, counter) -> eventCounts.put(type.name().toLowerCase(), (long) counter.count()));
+        return eventCounts;
     }
 
-
+    private void onEntryEvent(String action, EntryEvent<Object, Object> event) {
+        counters.get(event.getEventType()).increment();
+        if (log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            String keyType = USERS.equals(event.getName()) ? "key= userId" : "key";
+            log.debug("Cache entry {} [map= '{}', {} '{}']", action, event.getName(), keyType, event.getKey());
+        }
+    }
 }
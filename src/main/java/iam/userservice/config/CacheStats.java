@@ -0,0 +1,21 @@
+package iam.userservice.config;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics of a two-tier cache, as seen by the member that serves the 'cachestats' actuator endpoint.
+ *
+ * @param name            the cache
+ * @param size            entries in the Hazelcast map, cluster wide
+ * @param ownedEntries    entries of the map owned by this member
+ * @param memoryCostBytes heap cost of this member's owned and backup entries of the map
+ * @param localSize       entries in this member's L1 cache
+ * @param hitRatio        share of this member's lookups served by either tier
+ * @param localHitRatio   share of this member's lookups served by L1
+ * @param events          entry events of the entries this member owns, by type
+ * @param topKeys         the most frequently read keys in L1, hottest first
+ */
+public record CacheStats(String name, int size, long ownedEntries, long memoryCostBytes, long localSize,
+                         double hitRatio, double localHitRatio, Map<String, Long> events, List<String> topKeys) {
+}
@@ -0,0 +1,55 @@
+package iam.userservice.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.LocalMapStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static iam.userservice.service.UserService.USERS;
+
+/**
+ * Actuator endpoint with the statistics of the 'users' cache on this member: GET /actuator/cachestats.
+ * The top keys are the hottest of L1 by Caffeine's frequency sketch, GET /actuator/cachestats?top=25 lists more.
+ * Only the cluster wide size is a cluster operation, everything else is read from this member.
+ */
+@Component
+@Endpoint(id = "cachestats")
+@RequiredArgsConstructor
+public class CacheStatsEndpoint {
+
+    static final int DEFAULT_TOP_KEYS = 10;
+
+    private final HazelcastInstance hazelcastInstance;
+    private final CacheManager cacheManager;
+    private final CacheListener cacheListener;
+
+    @ReadOperation
+    public CacheStats cacheStats(@Nullable Integer top) {
+        IMap<Object, Object> usersCache = hazelcastInstance.getMap(USERS);
+        LocalMapStats mapStats = usersCache.getLocalMapStats();
+        long localSize = 0;
+        double hitRatio = 0;
+        double localHitRatio = 0;
+        List<String> topKeys = List.of();
+        if (cacheManager.getCache(USERS) instanceof TwoTierCache cache) {
+            var localCache = cache.getLocalCache();
+            localSize = localCache.estimatedSize();
+            hitRatio = cache.hitRatio();
+            localHitRatio = localCache.stats().hitRate();
+            int limit = top != null ? Math.max(0, top) : DEFAULT_TOP_KEYS;
+            topKeys = localCache.policy().eviction()
+                    .map(eviction -> eviction.hottest(limit).keySet().stream().map(String::valueOf).toList())
+                    .orElse(List.of());
+        }
+        return new CacheStats(USERS, usersCache.size(), mapStats.getOwnedEntryCount(),
+                mapStats.getOwnedEntryMemoryCost() + mapStats.getBackupEntryMemoryCost(), localSize,
+                hitRatio, localHitRatio, cacheListener.eventCounts(), topKeys);
+    }
+}
@@ -0,0 +1,117 @@
+package iam.userservice.config;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.LocalMapStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import static iam.userservice.service.UserService.USERS;
+
+/**
+ * Actuator endpoint recommending the eviction size of the 'users' map on this member: GET /actuator/cachetuning.
+ * <p>
+ * The map's hit ratio is read from the 'user.cache.gets' hits and misses of L2, where read-through loads
+ * ('user.cache.map.store' load) count as misses, since the map loader turns them into hits. The map's entries
+ * are costed at their measured size. When the ratio is below 'user.cache.tuning.target-hit-ratio' and the map
+ * evicts, a bigger map would help and twice its entries are recommended. Without evictions, the misses are first
+ * reads or expiries and the size stays. A map that meets the target with most of its budget unused can shrink.
+ * The recommendations are applied with user.cache.l2.eviction.*.
+ */
+@Component
+@Endpoint(id = "cachetuning")
+public class CacheTuningEndpoint {
+
+    static final long MIN_LOOKUPS = 100;
+    private static final long MB = 1024 * 1024;
+
+    private final HazelcastInstance hazelcastInstance;
+    private final MeterRegistry meterRegistry;
+    private final double targetHitRatio;
+
+    public CacheTuningEndpoint(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry,
+                               @Value("${user.cache.tuning.target-hit-ratio:0.9}") double targetHitRatio) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.meterRegistry = meterRegistry;
+        this.targetHitRatio = targetHitRatio;
+    }
+
+    @ReadOperation
+    public CacheTuningReport report() {
+        EvictionConfig eviction = hazelcastInstance.getConfig().getMapConfig(USERS).getEvictionConfig();
+        LocalMapStats mapStats = hazelcastInstance.getMap(USERS).getLocalMapStats();
+        long entries = mapStats.getOwnedEntryCount() + mapStats.getBackupEntryCount();
+        long memoryCost = mapStats.getOwnedEntryMemoryCost() + mapStats.getBackupEntryMemoryCost();
+        long averageEntryBytes = entries == 0 ? 0 : memoryCost / entries;
+        long maxHeapBytes = Runtime.getRuntime().maxMemory();
+        long budgetBytes = budgetBytes(eviction, mapStats.getBackupCount(), averageEntryBytes, maxHeapBytes);
+        long entryBudget = budgetBytes < 0 || averageEntryBytes == 0 ? -1 : budgetBytes / averageEntryBytes;
+        long evictions = mapStats.getEvictionCount();
+
+        long hits = count(timer(TwoTierCache.GETS_METRIC, "result", "hit"));
+        long lookups = hits + count(timer(TwoTierCache.GETS_METRIC, "result", "miss"));
+        long loads = count(meterRegistry.find(UserMapLoader.METRIC).tag("operation", "load").timer());
+        double hitRatio = lookups == 0 ? 0 : (double) Math.max(0, hits - loads) / lookups;
+
+        long recommendedEntries = entryBudget >= 0 ? entryBudget : entries;
+        String recommendation;
+        if (lookups < MIN_LOOKUPS || entries == 0) {
+            recommendation = "Not enough lookups yet to tell, keep the current size";
+        } else if (hitRatio < targetHitRatio && evictions > 0) {
+            recommendedEntries = Math.max(entryBudget, entries) * 2;
+            recommendation = String.format("Hit ratio %.2f is below the target %.2f and entries are evicted, "
+                    + "double the size", hitRatio, targetHitRatio);
+        } else if (hitRatio < targetHitRatio) {
+            recommendation = String.format("Hit ratio %.2f is below the target %.2f, but nothing is evicted: the misses "
+                    + "are first reads or expiries, a bigger size won't help", hitRatio, targetHitRatio);
+        } else if (evictions == 0 && budgetBytes > 0 && memoryCost < budgetBytes / 4) {
+            recommendedEntries = entries * 2;
+            recommendation = String.format("Hit ratio %.2f meets the target with less than a quarter of the budget "
+                    + "used, the size can be lowered to free heap", hitRatio);
+        } else {
+            recommendation = String.format("Hit ratio %.2f meets the target, keep the current size", hitRatio);
+        }
+        long recommendedBytes = recommendedEntries * averageEntryBytes;
+        return new CacheTuningReport(eviction.getMaxSizePolicy().name(), eviction.getSize(),
+                eviction.getEvictionPolicy().name(), entries, memoryCost, averageEntryBytes, maxHeapBytes,
+                budgetBytes, entryBudget, evictions, hitRatio, targetHitRatio, recommendedEntries,
+                Math.max(1, ceilDiv(recommendedBytes, MB)),
+                (int) Math.max(1, ceilDiv(recommendedBytes * 100, maxHeapBytes)), recommendation);
+    }
+
+    /* The heap the map may use on this member, entry count policies costed at the measured entry size */
+    private static long budgetBytes(EvictionConfig eviction, int backupCount, long averageEntryBytes, long maxHeapBytes) {
+        if (eviction.getEvictionPolicy() == EvictionPolicy.NONE) {
+            return -1;
+        }
+        long size = eviction.getSize();
+        switch (eviction.getMaxSizePolicy()) {
+            case USED_HEAP_PERCENTAGE:
+                return maxHeapBytes * size / 100;
+            case USED_HEAP_SIZE:
+                return size * MB;
+            case PER_NODE:
+                // Owned entries, plus about as many backups of other members' entries per backup
+                return size * (1 + backupCount) * averageEntryBytes;
+            default:
+                return -1;
+        }
+    }
+
+    private Timer timer(String name, String tag, String value) {
+        return meterRegistry.find(name).tags("cache", USERS, "tier", "l2", tag, value).timer();
+    }
+
+    private static long count(Timer timer) {
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
@@ -0,0 +1,28 @@
+package iam.userservice.config;
+
+/**
+ * Eviction settings of the 'users' map on this member, what they hold and what they should be set to.
+ *
+ * @param maxSizePolicy                  the configured max-size-policy
+ * @param size                           the configured size, in the policy's unit
+ * @param evictionPolicy                 the configured eviction-policy
+ * @param entries                        owned and backup entries on this member
+ * @param memoryCostBytes                heap cost of those entries
+ * @param averageEntryBytes              measured heap cost of an entry, 0 while the map is empty
+ * @param maxHeapBytes                   the member's max heap
+ * @param budgetBytes                    heap the map may use before it evicts, -1 if it isn't bounded by its own size
+ * @param entryBudget                    entries that fit in the budget at the measured entry size, -1 if unknown
+ * @param evictions                      entries evicted on this member since it started
+ * @param hitRatio                       share of this member's map lookups served without loading from the database
+ * @param targetHitRatio                 hit ratio the recommendation aims for
+ * @param recommendedEntries             entries the map should hold on this member
+ * @param recommendedUsedHeapSizeMb      the recommendation as USED_HEAP_SIZE
+ * @param recommendedUsedHeapPercentage  the recommendation as USED_HEAP_PERCENTAGE
+ * @param recommendation                 the reasoning
+ */
+public record CacheTuningReport(String maxSizePolicy, int size, String evictionPolicy, long entries,
+                                long memoryCostBytes, long averageEntryBytes, long maxHeapBytes, long budgetBytes,
+                                long entryBudget, long evictions, double hitRatio, double targetHitRatio,
+                                long recommendedEntries, long recommendedUsedHeapSizeMb,
+                                int recommendedUsedHeapPercentage, String recommendation) {
+}
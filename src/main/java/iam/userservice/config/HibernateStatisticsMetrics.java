@@ -0,0 +1,53 @@
+package iam.userservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes Hibernate's statistics when hibernate.generate_statistics is on, which is off by default: the query plan
+ * cache's hits and misses ('hibernate.cache.query.plan', tagged with the result), the queries executed and the
+ * prepared statements. A miss means an HQL/JPQL string was translated to SQL again, e.g. because the cache is too
+ * small for the distinct queries.
+ * Criteria queries are translated on every execution and don't show up here.
+ */
+@Component
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        FunctionCounter.builder("hibernate.cache.query.plan", statistics, Statistics::getQueryPlanCacheHitCount)
+                .tag("result", "hit")
+                .description("Query plan cache lookups that reused a translated query")
+                .register(registry);
+        FunctionCounter.builder("hibernate.cache.query.plan", statistics, Statistics::getQueryPlanCacheMissCount)
+                .tag("result", "miss")
+                .description("Query plan cache lookups that translated the query")
+                .register(registry);
+        FunctionCounter.builder("hibernate.query.executions", statistics, Statistics::getQueryExecutionCount)
+                .register(registry);
+        TimeGauge.builder("hibernate.query.executions.max", statistics, TimeUnit.MILLISECONDS,
+                        Statistics::getQueryExecutionMaxTime)
+                .register(registry);
+        FunctionCounter.builder("hibernate.statements", statistics, Statistics::getPrepareStatementCount)
+                .tag("status", "prepared")
+                .register(registry);
+    }
+}
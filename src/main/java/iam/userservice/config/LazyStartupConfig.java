@@ -0,0 +1,118 @@
+package iam.userservice.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Startup mode for 'spring.main.lazy-initialization=true' (LAZY_STARTUP=true).
+ * <p>
+ * Only the infrastructure readiness depends on is created during the refresh: the DataSource and Flyway on the
+ * main thread, then Hibernate on a bootstrap thread while the main thread creates the Hazelcast member,
+ * so the cluster join no longer waits for the persistence unit. The refresh still ends only once both are
+ * done, before readiness is published. Everything else, e.g. controllers, Swagger UI and the cache
+ * manager, is created on first use, and the AMQP admin once the application is ready.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.main.lazy-initialization", havingValue = "true")
+@Slf4j
+public class LazyStartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter readinessCriticalBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, FlywayMigrationInitializer.class,
+                EntityManagerFactory.class, HazelcastInstance.class);
+    }
+
+    /*
+     Spring Boot makes the EntityManagerFactory depend on the cache manager and the Hazelcast member, in case
+     Hibernate's second-level cache uses them. It doesn't here, and the dependency would make Hibernate wait
+     for the cluster join.
+     */
+    @Bean
+    static BeanFactoryPostProcessor entityManagerFactoryWithoutCacheDependency() {
+        return beanFactory -> {
+            Set<String> cacheBeans = new HashSet<>();
+            cacheBeans.addAll(List.of(beanFactory.getBeanNamesForType(CacheManager.class, true, false)));
+            cacheBeans.addAll(List.of(beanFactory.getBeanNamesForType(HazelcastInstance.class, true, false)));
+            Set<String> entityManagerFactories =
+                    new HashSet<>(List.of(beanFactory.getBeanNamesForType(EntityManagerFactory.class, true, false)));
+            for (String factoryBean : beanFactory.getBeanNamesForType(AbstractEntityManagerFactoryBean.class, true, false)) {
+                entityManagerFactories.add(BeanFactoryUtils.transformedBeanName(factoryBean));
+            }
+            for (String beanName : entityManagerFactories) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                String[] dependsOn = definition.getDependsOn();
+                if (dependsOn != null) {
+                    definition.setDependsOn(Arrays.stream(dependsOn)
+                            .filter(dependency -> !cacheBeans.contains(dependency))
+                            .toArray(String[]::new));
+                }
+            }
+        };
+    }
+
+    @Bean
+    static BeanPostProcessor entityManagerFactoryBackgroundInit(
+            @Qualifier(ConfigurableApplicationContext.BOOTSTRAP_EXECUTOR_BEAN_NAME)
+            ObjectProvider<AsyncTaskExecutor> bootstrapExecutor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean factoryBean) {
+                    factoryBean.setBootstrapExecutor(bootstrapExecutor.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /* Builds the persistence unit, also picked up by name by the application context for background beans */
+    @Bean(name = ConfigurableApplicationContext.BOOTSTRAP_EXECUTOR_BEAN_NAME)
+    static AsyncTaskExecutor bootstrapExecutor() {
+        return new SimpleAsyncTaskExecutor("bootstrap-");
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void awaitPersistenceUnit(ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeanProvider(LocalContainerEntityManagerFactoryBean.class)
+                .ifAvailable(LocalContainerEntityManagerFactoryBean::getNativeEntityManagerFactory);
+    }
+
+    /*
+     The admin declares the queues, exchange and binding on every new connection, but only once it exists.
+     Nothing injects it, so left lazy it would never be created.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeAmqpAdmin(ApplicationReadyEvent event) {
+        ObjectProvider<AmqpAdmin> amqpAdmin = event.getApplicationContext().getBeanProvider(AmqpAdmin.class);
+        amqpAdmin.ifAvailable(admin -> log.debug("AMQP admin initialized: {}", admin.getClass().getSimpleName()));
+    }
+}
@@ -0,0 +1,60 @@
+package iam.userservice.config;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.EntryListener;
+import com.hazelcast.map.MapEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drops L1 entries of a {@link TwoTierCache} when their L2 entry changes on any member.
+ * Registered without values, since only the key is needed, so events don't carry serialized users.
+ */
+@Slf4j
+public class LocalCacheInvalidationListener implements EntryListener<Object, Object> {
+
+    private final TwoTierCache cache;
+
+    public LocalCacheInvalidationListener(TwoTierCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void entryAdded(EntryEvent<Object, Object> entryEvent) {
+        invalidate(entryEvent);
+    }
+
+    @Override
+    public void entryEvicted(EntryEvent<Object, Object> entryEvent) {
+        invalidate(entryEvent);
+    }
+
+    @Override
+    public void entryExpired(EntryEvent<Object, Object> entryEvent) {
+        invalidate(entryEvent);
+    }
+
+    @Override
+    public void entryRemoved(EntryEvent<Object, Object> entryEvent) {
+        invalidate(entryEvent);
+    }
+
+    @Override
+    public void entryUpdated(EntryEvent<Object, Object> entryEvent) {
+        invalidate(entryEvent);
+    }
+
+    @Override
+    public void mapCleared(MapEvent mapEvent) {
+        cache.getLocalCache().invalidateAll();
+    }
+
+    @Override
+    public void mapEvicted(MapEvent mapEvent) {
+        cache.getLocalCache().invalidateAll();
+    }
+
+    private void invalidate(EntryEvent<Object, Object> event) {
+        cache.getLocalCache().invalidate(event.getKey());
+        log.trace("Local cache entry invalidated [map= '{}', key '{}']", event.getName(), event.getKey());
+    }
+}
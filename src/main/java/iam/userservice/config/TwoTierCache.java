@@ -0,0 +1,161 @@
+package iam.userservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A local, size bounded Caffeine cache (L1) in front of a cluster wide cache (L2), the Hazelcast map.
+ * <p>
+ * Reads are served from L1 when possible and otherwise copied from L2 into L1. Writes go to L2 first, so other
+ * members see them as soon as L2 is updated, and L1 entries are invalidated by L2's entry events, including
+ * those of writes that bypass this cache (see {@link LocalCacheInvalidationListener}). An entry read from L2
+ * while another member changes it can still be put into L1 after the invalidation, so L1 entries also expire
+ * after a short time to live, which bounds how long such a stale read can last.
+ * <p>
+ * 'user.cache.gets' times lookups per cache and tier (l1, l2), tagged with the result (hit, miss).
+ */
+public class TwoTierCache implements Cache {
+
+    static final String GETS_METRIC = "user.cache.gets";
+
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local;
+    private final Timer localHits;
+    private final Timer localMisses;
+    private final Timer remoteHits;
+    private final Timer remoteMisses;
+
+    public TwoTierCache(Cache remote, com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local,
+                        MeterRegistry meterRegistry) {
+        this.remote = remote;
+        this.local = local;
+        this.localHits = timer(meterRegistry, remote.getName(), "l1", "hit");
+        this.localMisses = timer(meterRegistry, remote.getName(), "l1", "miss");
+        this.remoteHits = timer(meterRegistry, remote.getName(), "l2", "hit");
+        this.remoteMisses = timer(meterRegistry, remote.getName(), "l2", "miss");
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    /**
+     * @return the L2 store, which holds every entry of the cache
+     */
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> getLocalCache() {
+        return local;
+    }
+
+    public Cache getRemoteCache() {
+        return remote;
+    }
+
+    /**
+     * @return the share of lookups since startup that were served by either tier, 0 before the first lookup
+     */
+    public double hitRatio() {
+        long lookups = localHits.count() + localMisses.count();
+        return lookups == 0 ? 0 : (double) (localHits.count() + remoteHits.count()) / lookups;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        long start = System.nanoTime();
+        ValueWrapper valueWrapper = local.getIfPresent(key);
+        if (valueWrapper != null) {
+            localHits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return valueWrapper;
+        }
+        localMisses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        start = System.nanoTime();
+        valueWrapper = remote.get(key);
+        (valueWrapper != null ? remoteHits : remoteMisses)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (valueWrapper != null) {
+            local.put(key, valueWrapper);
+        }
+        return valueWrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valueWrapper = get(key);
+        Object value = valueWrapper != null ? valueWrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper valueWrapper = get(key);
+        if (valueWrapper != null) {
+            return (T) valueWrapper.get();
+        }
+        T value = remote.get(key, valueLoader);
+        local.put(key, new SimpleValueWrapper(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(key, new SimpleValueWrapper(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        local.invalidate(key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        local.invalidate(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        local.invalidateAll();
+        return invalidated;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String name, String tier, String result) {
+        return Timer.builder(GETS_METRIC)
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,56 @@
+package iam.userservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.cache.HazelcastCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static iam.userservice.service.UserService.USERS;
+
+/**
+ * The 'users' cache is served from a local Caffeine cache (L1) in front of the Hazelcast map (L2),
+ * see {@link TwoTierCache}. Caffeine evicts by W-TinyLFU, which keeps frequently read users over
+ * ones read once, e.g. by a scan through many ids.
+ */
+@Configuration
+public class TwoTierCacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry,
+                                     @Value("${user.cache.l1.maximum-size:10000}") long maximumSize,
+                                     @Value("${user.cache.l1.time-to-live:30s}") Duration timeToLive) {
+        return new TwoTierCacheManager(new HazelcastCacheManager(hazelcastInstance), Set.of(USERS), remoteCache -> {
+            TwoTierCache cache = new TwoTierCache(remoteCache, Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(timeToLive)
+                    .recordStats()
+                    .build(), meterRegistry);
+            // Registered before the first read can fill L1, so no invalidation is missed
+            hazelcastInstance.getMap(remoteCache.getName())
+                    .addEntryListener(new LocalCacheInvalidationListener(cache), false);
+            return cache;
+        });
+    }
+
+    /* The standard cache.* meters of both tiers, told apart by the 'tier' tag */
+    @Bean
+    CacheMeterBinderProvider<TwoTierCache> twoTierCacheMeterBinderProvider() {
+        return (cache, tags) -> registry -> {
+            new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName(), Tags.of(tags).and("tier", "l1"))
+                    .bindTo(registry);
+            new HazelcastCacheMetrics(cache.getNativeCache(), Tags.of(tags).and("tier", "l2"))
+                    .bindTo(registry);
+        };
+    }
+}
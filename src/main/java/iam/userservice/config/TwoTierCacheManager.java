@@ -0,0 +1,50 @@
+package iam.userservice.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Puts a local L1 tier in front of the given caches of a cluster wide cache manager, e.g. Hazelcast's.
+ * Other caches are served by the cluster wide cache manager alone.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final Set<String> twoTierCacheNames;
+    private final Function<Cache, TwoTierCache> twoTierCacheFactory;
+    private final Map<String, TwoTierCache> twoTierCaches = new ConcurrentHashMap<>();
+
+    /**
+     * @param remoteCacheManager  the L2 cache manager
+     * @param twoTierCacheNames   names of the caches that get an L1 tier
+     * @param twoTierCacheFactory creates the two-tier cache for an L2 cache
+     */
+    public TwoTierCacheManager(CacheManager remoteCacheManager, Set<String> twoTierCacheNames,
+                               Function<Cache, TwoTierCache> twoTierCacheFactory) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.twoTierCacheNames = Set.copyOf(twoTierCacheNames);
+        this.twoTierCacheFactory = twoTierCacheFactory;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!twoTierCacheNames.contains(name)) {
+            return remoteCacheManager.getCache(name);
+        }
+        return twoTierCaches.computeIfAbsent(name, cacheName -> {
+            Cache remoteCache = remoteCacheManager.getCache(cacheName);
+            return remoteCache != null ? twoTierCacheFactory.apply(remoteCache) : null;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+}
@@ -0,0 +1,38 @@
+package iam.userservice.config;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MaxSizePolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.hazelcast.HazelcastConfigCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static iam.userservice.service.UserService.USERS;
+
+/**
+ * Overrides the eviction of the 'users' map configured in hazelcast.yaml, so it can be tuned per deployment
+ * without a new image, e.g. with the sizes GET /actuator/cachetuning recommends. Unset properties keep the yaml's.
+ */
+@Configuration
+public class UserCacheEvictionConfig {
+
+    @Bean
+    HazelcastConfigCustomizer userCacheEvictionCustomizer(
+            @Value("${user.cache.l2.eviction.max-size-policy:}") MaxSizePolicy maxSizePolicy,
+            @Value("${user.cache.l2.eviction.size:}") Integer size,
+            @Value("${user.cache.l2.eviction.policy:}") EvictionPolicy evictionPolicy) {
+        return config -> {
+            EvictionConfig evictionConfig = config.getMapConfig(USERS).getEvictionConfig();
+            if (maxSizePolicy != null) {
+                evictionConfig.setMaxSizePolicy(maxSizePolicy);
+            }
+            if (size != null) {
+                evictionConfig.setSize(size);
+            }
+            if (evictionPolicy != null) {
+                evictionConfig.setEvictionPolicy(evictionPolicy);
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package iam.userservice.config;
+
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import iam.userservice.mapper.UserDto;
+
+/**
+ * Compact serialization of cached users, registered in 'hazelcast.yaml'.
+ * <p>
+ * Compared to Java serialization the field names and types are kept once per schema rather than in every entry,
+ * so an entry only holds the field values. Hazelcast keeps one schema per distinct set of fields, which lets
+ * members with an older or newer UserDto share the 'users' map during a rolling deployment. Fields may be added,
+ * but entries written by older members don't contain them, so a field added later is only read when
+ * {@code reader.getFieldKind(name)} reports it with the expected kind. Removing or retyping a field requires
+ * a new type name.
+ */
+public class UserDtoCompactSerializer implements CompactSerializer<UserDto> {
+
+    static final String TYPE_NAME = "user";
+
+    @Override
+    public UserDto read(CompactReader reader) {
+        UserDto userDto = new UserDto();
+        userDto.setId(reader.readNullableInt64("id"));
+        userDto.setFirstName(reader.readString("firstName"));
+        userDto.setLastName(reader.readString("lastName"));
+        userDto.setEmail(reader.readString("email"));
+        userDto.setPhoneNumber(reader.readString("phoneNumber"));
+        userDto.setCreatedOn(reader.readTimestampWithTimezone("createdOn"));
+        userDto.setUpdatedOn(reader.readTimestampWithTimezone("updatedOn"));
+        userDto.setVersion(reader.readNullableInt64("version"));
+        return userDto;
+    }
+
+    @Override
+    public void write(CompactWriter writer, UserDto userDto) {
+        writer.writeNullableInt64("id", userDto.getId());
+        writer.writeString("firstName", userDto.getFirstName());
+        writer.writeString("lastName", userDto.getLastName());
+        writer.writeString("email", userDto.getEmail());
+        writer.writeString("phoneNumber", userDto.getPhoneNumber());
+        writer.writeTimestampWithTimezone("createdOn", userDto.getCreatedOn());
+        writer.writeTimestampWithTimezone("updatedOn", userDto.getUpdatedOn());
+        writer.writeNullableInt64("version", userDto.getVersion());
+    }
+
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+
+    @Override
+    public Class<UserDto> getCompactClass() {
+        return UserDto.class;
+    }
+}
@@ -0,0 +1,111 @@
+package iam.userservice.config;
+
+import com.hazelcast.map.MapLoader;
+import iam.userservice.mapper.UserMapper;
+import iam.userservice.repository.UserRepository;
+import iam.userservice.util.EmailSyntax;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Read-through for the 'users' map: a miss on any member loads the user from the database, so the lookups
+ * of {@code UserService} and hydrations of other caches no longer need their own database fallback.
+ * The map is keyed by id and, for {@code getUserByEmail}, by the email it was called with. Both are loaded.
+ * {@link #loadAll(Collection)} reads all ids with one query and the emails with one query each.
+ * Keys that aren't ids or well-formed emails are never looked up.
+ * <p>
+ * Hazelcast calls loadAll per partition, from as many threads as it likes, e.g. a getAll or the cache warm-up
+ * spread over many partitions. At most 'maxConcurrentLoadAll' of these calls query the database at a time on
+ * each member, the others wait for their turn.
+ * <p>
+ * Nothing is loaded when the map is created, the cache warm-up fills it instead.
+ * The repository is looked up on first use, since the entity manager factory is created after Hazelcast.
+ */
+@Slf4j
+public class UserMapLoader implements MapLoader<Object, Object> {
+
+    static final String METRIC = "user.cache.map.store";
+
+    private final ObjectProvider<UserRepository> userRepository;
+    private final UserMapper userMapper;
+    protected final MeterRegistry meterRegistry;
+    private final Semaphore loadAllPermits;
+
+    public UserMapLoader(ObjectProvider<UserRepository> userRepository, UserMapper userMapper,
+                         MeterRegistry meterRegistry, int maxConcurrentLoadAll) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.meterRegistry = meterRegistry;
+        this.loadAllPermits = new Semaphore(Math.max(1, maxConcurrentLoadAll));
+    }
+
+    @Override
+    public Object load(Object key) {
+        return timed("load", () -> {
+            if (key instanceof Long id) {
+                return userRepository().findById(id).map(userMapper::toDto).orElse(null);
+            }
+            if (key instanceof String email && EmailSyntax.isValid(email)) {
+                return userRepository().findByEmail(email).map(userMapper::toDto).orElse(null);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Map<Object, Object> loadAll(Collection<Object> keys) {
+        loadAllPermits.acquireUninterruptibly();
+        try {
+            return timed("loadAll", () -> loadAllUsers(keys));
+        } finally {
+            loadAllPermits.release();
+        }
+    }
+
+    private Map<Object, Object> loadAllUsers(Collection<Object> keys) {
+        List<Long> ids = new ArrayList<>();
+        Map<Object, Object> users = new HashMap<>();
+        for (Object key : keys) {
+            if (key instanceof Long id) {
+                ids.add(id);
+            } else if (key instanceof String email && EmailSyntax.isValid(email)) {
+                userRepository().findByEmail(email).ifPresent(user -> users.put(email, userMapper.toDto(user)));
+            }
+        }
+        if (!ids.isEmpty()) {
+            userRepository().findAllById(ids).forEach(user -> users.put(user.getId(), userMapper.toDto(user)));
+        }
+        log.debug("{} of {} users loaded into the cache", users.size(), keys.size());
+        return users;
+    }
+
+    @Override
+    public Iterable<Object> loadAllKeys() {
+        return List.of();
+    }
+
+    protected UserRepository userRepository() {
+        return userRepository.getObject();
+    }
+
+    protected UserMapper userMapper() {
+        return userMapper;
+    }
+
+    protected <T> T timed(String operation, Supplier<T> call) {
+        return Timer.builder(METRIC)
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(call);
+    }
+}
@@ -0,0 +1,95 @@
+package iam.userservice.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.MapLoaderLifecycleSupport;
+import com.hazelcast.map.MapStore;
+import iam.userservice.entity.User;
+import iam.userservice.mapper.UserDto;
+import iam.userservice.mapper.UserMapper;
+import iam.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Write-behind for the 'users' map, on top of the read-through of {@link UserMapLoader}. Profile changes
+ * written to the map (see {@code UserCacheService.patchProfile}) are queued by Hazelcast, coalesced per user
+ * and flushed in batches (write-delay-seconds and write-batch-size in hazelcast.yaml), each batch as one UPDATE.
+ * <p>
+ * Users written to the database directly are cached with the version they got there, so storing them again
+ * is skipped by the version guard of {@link UserRepository#updateProfilesIfNewer(List)}. A patch made in the cache
+ * while a direct write reached the same version is skipped as well, although its client already got a 200: each
+ * such drop is logged and counted in 'user.cache.write.behind.dropped'. Entries cached by
+ * email are copies of the ones cached by id and aren't stored, nor are cached nulls. Deletes are ignored:
+ * removing a user from the cache must never delete it, users are only deleted through {@code UserService}.
+ * <p>
+ * 'user.cache.write.behind.queue' is the number of entries this member still has to write.
+ */
+@Slf4j
+public class UserMapStore extends UserMapLoader implements MapStore<Object, Object>, MapLoaderLifecycleSupport {
+
+    public UserMapStore(ObjectProvider<UserRepository> userRepository, UserMapper userMapper,
+                        MeterRegistry meterRegistry, int maxConcurrentLoadAll) {
+        super(userRepository, userMapper, meterRegistry, maxConcurrentLoadAll);
+    }
+
+    private Counter dropped;
+
+    @Override
+    public void init(HazelcastInstance hazelcastInstance, Properties properties, String mapName) {
+        Gauge.builder("user.cache.write.behind.queue", hazelcastInstance,
+                        instance -> instance.getMap(mapName).getLocalMapStats().getDirtyEntryCount())
+                .tag("cache", mapName)
+                .register(meterRegistry);
+        dropped = Counter.builder("user.cache.write.behind.dropped")
+                .description("Cached user changes not written because the user was written directly meanwhile")
+                .tag("cache", mapName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        // Nothing to release, the repository is a Spring bean
+    }
+
+    @Override
+    public void store(Object key, Object value) {
+        storeAll(Map.of(key, value));
+    }
+
+    @Override
+    public void storeAll(Map<Object, Object> map) {
+        List<User> users = map.entrySet().stream()
+                .filter(entry -> entry.getKey() instanceof Long)
+                .map(Map.Entry::getValue)
+                .filter(UserDto.class::isInstance)
+                .map(value -> userMapper().toEntity((UserDto) value))
+                .toList();
+        if (users.isEmpty()) {
+            return;
+        }
+        List<Long> droppedIds = timed("storeAll", () -> userRepository().updateProfilesIfNewer(users));
+        if (!droppedIds.isEmpty()) {
+            dropped.increment(droppedIds.size());
+            log.warn("Cached changes of users {} dropped, they were written directly in the meantime", droppedIds);
+        }
+        log.debug("{} cached users written behind, {} of them dropped", users.size(), droppedIds.size());
+    }
+
+    @Override
+    public void delete(Object key) {
+        // Evicting a user from the cache doesn't delete it
+    }
+
+    @Override
+    public void deleteAll(Collection<Object> keys) {
+        // Evicting users from the cache doesn't delete them
+    }
+}
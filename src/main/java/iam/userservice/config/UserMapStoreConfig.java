@@ -0,0 +1,33 @@
+package iam.userservice.config;
+
+import iam.userservice.mapper.UserMapper;
+import iam.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.hazelcast.HazelcastConfigCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static iam.userservice.service.UserService.USERS;
+
+/**
+ * Plugs the map store into the 'users' map. Whether it is enabled, its write delay and batch size are
+ * configured in hazelcast.yaml. Hazelcast can't create it from there, it needs Spring beans.
+ * By default only the read-through {@link UserMapLoader} is used. With user.cache.write-behind.enabled
+ * the {@link UserMapStore} also writes profile changes made in the cache back to the database.
+ */
+@Configuration
+public class UserMapStoreConfig {
+
+    @Bean
+    HazelcastConfigCustomizer userMapStoreCustomizer(ObjectProvider<UserRepository> userRepository,
+                                                     UserMapper userMapper, MeterRegistry meterRegistry,
+                                                     @Value("${user.cache.write-behind.enabled:false}") boolean writeBehind,
+                                                     @Value("${user.cache.loader.max-concurrency:2}") int maxConcurrentLoadAll) {
+        UserMapLoader mapStore = writeBehind
+                ? new UserMapStore(userRepository, userMapper, meterRegistry, maxConcurrentLoadAll)
+                : new UserMapLoader(userRepository, userMapper, meterRegistry, maxConcurrentLoadAll);
+        return config -> config.getMapConfig(USERS).getMapStoreConfig().setImplementation(mapStore);
+    }
+}
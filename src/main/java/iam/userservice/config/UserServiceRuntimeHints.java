@@ -0,0 +1,75 @@
+package iam.userservice.config;
+
+import iam.userservice.config.logging.DropCountingAsyncAppender;
+import iam.userservice.config.logging.LogRateLimitFilter;
+import iam.userservice.events.UserEmailUpdatedEvent;
+import iam.userservice.exception.APIError;
+import iam.userservice.mapper.UserBulkDeleteDto;
+import iam.userservice.mapper.UserBulkResultDto;
+import iam.userservice.mapper.UserBulkUpdateDto;
+import iam.userservice.mapper.UserDto;
+import iam.userservice.mapper.UserFilterDto;
+import iam.userservice.mapper.UserPatchDto;
+import iam.userservice.mapper.UserRequestDto;
+import iam.userservice.mapper.UsersDto;
+import iam.userservice.slowquery.SlowQuery;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Reachability metadata for the native image (see the 'native' Maven profile) that Spring AOT can't infer.
+ * <p>
+ * Spring beans, the JPA entity, repositories and Flyway migrations are covered by AOT processing, and Hibernate by
+ * the GraalVM reachability metadata repository. This adds what is only reached reflectively at runtime: the
+ * openapi-generator DTOs and events Jackson (de)serializes, the Compact serializer Hazelcast creates for cached users,
+ * the MapStruct implementations, the JDK proxies of the slow-query capture and the classes logback-spring.xml names.
+ */
+public class UserServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> JSON_TYPES = List.of(
+            UserDto.class, UsersDto.class, UserRequestDto.class, UserFilterDto.class, UserPatchDto.class,
+            UserBulkUpdateDto.class, UserBulkDeleteDto.class, UserBulkResultDto.class, APIError.class,
+            UserEmailUpdatedEvent.class, SlowQuery.class, SlowQuery.Statement.class, CacheStats.class,
+            CacheTuningReport.class);
+
+    private static final List<String> MAPPER_IMPLEMENTATIONS = List.of(
+            "iam.userservice.mapper.UserMapperImpl", "iam.userservice.mapper.UserFilterMapperImpl");
+
+    private static final List<String> LOKI_TYPES = List.of(
+            "com.github.loki4j.logback.Loki4jAppender", "com.github.loki4j.logback.JavaHttpSender",
+            "com.github.loki4j.logback.JsonEncoder", "com.github.loki4j.logback.AbstractLoki4jEncoder$LabelCfg");
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        JSON_TYPES.forEach(type -> bindingRegistrar.registerReflectionHints(hints.reflection(), type));
+
+        // Cached UserDtos are written by the Compact serializer hazelcast.yaml names
+        hints.reflection().registerType(UserDtoCompactSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources()
+                .registerPattern("hazelcast*.yaml")
+                .registerPattern("hazelcast-default.xml");
+
+        MAPPER_IMPLEMENTATIONS.forEach(mapper -> hints.reflection()
+                .registerType(TypeReference.of(mapper), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+
+        // The slow-query capture wraps the DataSource in a subclass, only connections and statements are JDK proxies
+        hints.proxies()
+                .registerJdkProxy(Connection.class)
+                .registerJdkProxy(PreparedStatement.class);
+
+        for (Class<?> type : List.of(LogRateLimitFilter.class, DropCountingAsyncAppender.class)) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        LOKI_TYPES.forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+    }
+}
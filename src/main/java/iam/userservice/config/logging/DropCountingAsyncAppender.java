@@ -0,0 +1,40 @@
+package iam.userservice.config.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * {@link AsyncAppender} that counts the events it drops, as 'logback.events.dropped' tagged with the appender name
+ * and reason 'queue_full' (neverBlock and no room left) or 'discarded' (TRACE to INFO events dropped once the
+ * queue is filled beyond its discarding threshold).
+ * <p>
+ * The check reads the remaining capacity just before handing the event on, so under contention the counts are
+ * approximate, which is enough to tell that the pipeline is shedding load.
+ */
+public class DropCountingAsyncAppender extends AsyncAppender {
+
+    private Counter queueFull;
+    private Counter discarded;
+
+    @Override
+    public void start() {
+        super.start();
+        queueFull = Metrics.counter(LogRateLimitFilter.DROPPED_METRIC, "reason", "queue_full", "appender", getName());
+        discarded = Metrics.counter(LogRateLimitFilter.DROPPED_METRIC, "reason", "discarded", "appender", getName());
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isStarted()) {
+            int remaining = getRemainingCapacity();
+            if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+                discarded.increment();
+            } else if (remaining == 0 && isNeverBlock()) {
+                queueFull.increment();
+            }
+        }
+        super.append(event);
+    }
+}
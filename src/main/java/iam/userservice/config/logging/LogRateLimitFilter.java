@@ -0,0 +1,105 @@
+package iam.userservice.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limits INFO and lower logs of hot-path loggers, before the event is created or its arguments formatted.
+ * <p>
+ * Each configured logger (and its children, counted together) may log 'permitsPerSecond' events per second.
+ * Beyond that only every 'sampleEvery'-th event passes, so bursts still leave a trace. WARN and ERROR are never
+ * limited, and neither are isInfoEnabled() style checks. Denied events are counted as
+ * 'logback.events.dropped' with reason 'rate_limited', tagged by the configured logger name.
+ * <pre>
+ * &lt;turboFilter class="iam.userservice.config.logging.LogRateLimitFilter"&gt;
+ *     &lt;loggers&gt;iam.userservice.service,iam.userservice.controller&lt;/loggers&gt;
+ *     &lt;permitsPerSecond&gt;50&lt;/permitsPerSecond&gt;
+ *     &lt;sampleEvery&gt;100&lt;/sampleEvery&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class LogRateLimitFilter extends TurboFilter {
+
+    static final String DROPPED_METRIC = "logback.events.dropped";
+
+    private List<String> loggers = List.of();
+    private int permitsPerSecond = 50;
+    private int sampleEvery = 100;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || !isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+        String limitedLogger = limitedLoggerOf(logger.getName());
+        if (limitedLogger == null) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(limitedLogger, Window::new);
+        return window.tryAcquire(System.nanoTime(), permitsPerSecond, sampleEvery) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+    }
+
+    public void setPermitsPerSecond(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    private String limitedLoggerOf(String loggerName) {
+        for (String limited : loggers) {
+            if (loggerName.startsWith(limited)
+                    && (loggerName.length() == limited.length() || loggerName.charAt(limited.length()) == '.')) {
+                return limited;
+            }
+        }
+        return null;
+    }
+
+    /* Fixed one second window. Racing threads may let a few extra events through at the window boundary, which is fine */
+    private static final class Window {
+        private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicLong count = new AtomicLong();
+        private final Counter dropped;
+
+        private Window(String logger) {
+            this.dropped = Metrics.counter(DROPPED_METRIC, "reason", "rate_limited", "logger", logger);
+        }
+
+        private boolean tryAcquire(long now, int permitsPerSecond, int sampleEvery) {
+            long start = windowStart.get();
+            if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+                count.set(0);
+            }
+            long n = count.incrementAndGet();
+            if (n <= permitsPerSecond || (n - permitsPerSecond) % sampleEvery == 0) {
+                return true;
+            }
+            dropped.increment();
+            return false;
+        }
+    }
+}
@@ -83,6 +83,8 @@ public class RabbitMQConfig {
     public AmqpTemplate amqpTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(messageConverter());
+        // Times every publish as 'spring.rabbit.template'
+        rabbitTemplate.setObservationEnabled(true);
         return rabbitTemplate;
     }
 
@@ -1,10 +1,15 @@
 package iam.userservice.controller;
 
+import iam.userservice.mapper.UserBulkDeleteDto;
+import iam.userservice.mapper.UserBulkResultDto;
+import iam.userservice.mapper.UserBulkUpdateDto;
 import iam.userservice.mapper.UserDto;
 import iam.userservice.mapper.UserFilterDto;
+import iam.userservice.mapper.UserPatchDto;
 import iam.userservice.mapper.UserRequestDto;
 import iam.userservice.mapper.UsersDto;
 import iam.userservice.service.UserService;
+import iam.userservice.util.UnknownTotalPage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +18,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 
 @RequestMapping("/api/v1")
 @RestController
@@ -60,6 +67,41 @@ public class UserController implements UsersApi{
         return ResponseEntity.ok(response);
     }
 
+    @Override
+    public ResponseEntity<UserDto> patchUser(Long id, @Valid UserPatchDto userPatchDto) {
+        log.debug("Received request to patch user with id '{}'", id);
+        var response = userService.patchUser(id, userPatchDto);
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<UserDto> upsertUserByEmail(String email, @Valid UserRequestDto userRequestDto) {
+        log.debug("Received request to upsert user by email '{}'", email);
+        var response = userService.upsertUserByEmail(email, userRequestDto);
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<List<UserDto>> upsertUsersByEmail(@Valid List<@Valid UserRequestDto> userRequestDtos) {
+        log.debug("Received request to upsert {} users by email", userRequestDtos.size());
+        var response = userService.upsertUsersByEmail(userRequestDtos);
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<List<UserBulkResultDto>> bulkUpdateUsers(@Valid List<UserBulkUpdateDto> userBulkUpdateDtos) {
+        log.debug("Received request to bulk update {} users", userBulkUpdateDtos.size());
+        var response = userService.bulkUpdateUsers(userBulkUpdateDtos);
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<List<UserBulkResultDto>> bulkDeleteUsers(@Valid UserBulkDeleteDto userBulkDeleteDto) {
+        log.debug("Received request to bulk delete {} users", userBulkDeleteDto.getIds().size());
+        var response = userService.bulkDeleteUsers(userBulkDeleteDto);
+        return ResponseEntity.ok(response);
+    }
+
     @Override
     public ResponseEntity<Void> deleteUser(Long id) {
         log.debug("Received request to delete user with id '{}'", id);
@@ -76,8 +118,11 @@ public class UserController implements UsersApi{
         var filteredUsers = userService.searchUsers(userFilterDto, pageNo, pageSize, direction, orderBy);
         var response = new UsersDto();
         response.setContent(filteredUsers.getContent());
-        response.setTotalElements(filteredUsers.getTotalElements());
-        response.setTotalPages(filteredUsers.getTotalPages());
+        // Left out when the count timed out, the page's total is then only a lower bound
+        if (!(filteredUsers instanceof UnknownTotalPage)) {
+            response.setTotalElements(filteredUsers.getTotalElements());
+            response.setTotalPages(filteredUsers.getTotalPages());
+        }
 
         return ResponseEntity.ok(response);
     }
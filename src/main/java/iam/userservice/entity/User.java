@@ -6,10 +6,14 @@ import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
+import iam.userservice.util.EmailNormalizer;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -17,6 +21,7 @@ import java.time.OffsetDateTime;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate
 @NoArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
 public class User {
@@ -45,6 +50,17 @@ public class User {
     @Version
     private Long version;
 
+    /*
+     * Emails are stored lower-cased (see V4__case_insensitive_email.sql), whichever path writes the entity.
+     */
+    @PrePersist
+    @PreUpdate
+    void normalizeEmail() {
+        if (email != null) {
+            this.email = EmailNormalizer.normalize(email);
+        }
+    }
+
     /*
      * Explicitly define getter and setter methods to ensure MapStruct can properly
      * detect and use them for the User class, as it fails to recognize
@@ -1,7 +1,9 @@
 package iam.userservice.exception;
 
+import iam.userservice.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -40,6 +42,25 @@ public class ExceptionController extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
     }
 
+    /*
+     This exception is thrown when a write raced a concurrent one to the same unique email. Writes check for
+     taken emails themselves, the database error is not passed on to the client.
+     */
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<APIError> handleDuplicateKeyException(DuplicateKeyException ex, WebRequest request) {
+        log.info("Write rejected by a unique constraint: {}", ex.getMostSpecificCause().getMessage());
+        APIError errorDetails = new APIError(UserService.EMAIL_TAKEN_MESSAGE, extractPath(request.getDescription(false)));
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /* This exception is thrown when users fail validation, the message lists every violation found */
+    @ExceptionHandler(UserValidationException.class)
+    public ResponseEntity<APIError> handleUserValidationException(UserValidationException ex, WebRequest request) {
+        log.info("User validation failed with {} violation(s)", ex.getViolations().size());
+        APIError apiError = new APIError(ex.getMessage(), extractPath(request.getDescription(false)));
+        return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
+    }
+
     /* This exception is thrown when a client sends a request with an illegal request argument e.g. invalid date format, negative value, etc. */
     @ExceptionHandler({IllegalArgumentException.class, MethodArgumentTypeMismatchException.class,
             DateTimeException.class})
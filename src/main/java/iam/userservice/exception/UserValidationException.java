@@ -0,0 +1,39 @@
+package iam.userservice.exception;
+
+import iam.userservice.validation.UserViolation;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown when users fail validation, carrying every violation found rather than only the first.
+ * Extends IllegalArgumentException so callers treating invalid input generically keep working.
+ */
+public class UserValidationException extends IllegalArgumentException {
+
+    private final transient List<UserViolation> violations;
+
+    private UserValidationException(List<UserViolation> violations, Function<UserViolation, String> formatter) {
+        super(violations.stream().map(formatter).collect(Collectors.joining(", ")));
+        this.violations = List.copyOf(violations);
+    }
+
+    /**
+     * Violations of a single user, e.g. "email Invalid email address format".
+     */
+    public static UserValidationException forUser(List<UserViolation> violations) {
+        return new UserValidationException(violations, violation -> violation.field() + " " + violation.message());
+    }
+
+    /**
+     * Violations of a batch, prefixed with the index of the user, e.g. "[3] email Invalid email address format".
+     */
+    public static UserValidationException forBatch(List<UserViolation> violations) {
+        return new UserValidationException(violations, UserViolation::toString);
+    }
+
+    public List<UserViolation> getViolations() {
+        return violations;
+    }
+}
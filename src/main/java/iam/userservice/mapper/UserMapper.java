@@ -17,5 +17,15 @@ public interface UserMapper {
     @Mapping(source = "phoneNumber", target = "phoneNumber")
     User toEntity(UserRequestDto userRequestDto);
 
+    User toEntity(UserBulkUpdateDto userBulkUpdateDto);
+
+    User toEntity(UserPatchDto userPatchDto);
+
+    User toEntity(UserDto userDto);
+
+    UserRequestDto toRequestDto(UserBulkUpdateDto userBulkUpdateDto);
+
+    UserRequestDto toRequestDto(UserPatchDto userPatchDto);
+
     UserDto toDto(User booking);
 }
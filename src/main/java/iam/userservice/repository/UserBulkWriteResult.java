@@ -0,0 +1,18 @@
+package iam.userservice.repository;
+
+import iam.userservice.entity.User;
+
+/**
+ * Outcome of a versioned write (bulk or partial) for a single requested id.
+ *
+ * @param id            the requested user id
+ * @param outcome       what happened to the row
+ * @param user          the row as stored after an update, null for every other outcome
+ * @param previousEmail the email the row had before the statement, null if the row didn't exist
+ */
+public record UserBulkWriteResult(Long id, Outcome outcome, User user, String previousEmail) {
+
+    public enum Outcome {
+        UPDATED, DELETED, NOT_FOUND, CONFLICT, EMAIL_TAKEN
+    }
+}
@@ -1,16 +1,26 @@
 package iam.userservice.repository;
 
 import iam.userservice.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, Long>, UserWriteRepository, UserSearchRepository {
 
-    Optional<User> findByEmail(String email);
+    /* Compares on lower(email) so the lookup is served by the ux_users_email_lower functional index */
+    @Query("select u from User u where lower(u.email) = lower(:email)")
+    Optional<User> findByEmail(@Param("email") String email);
 
-    Boolean existsByEmailIgnoreCase(String email);
+    /* Ids only, most recently written first, read from the idx_users_updated_on index */
+    @Query("select u.id from User u order by u.updatedOn desc nulls last, u.id desc")
+    List<Long> findRecentlyUpdatedIds(Limit limit);
+
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
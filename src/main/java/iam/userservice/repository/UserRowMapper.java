@@ -0,0 +1,32 @@
+package iam.userservice.repository;
+
+import iam.userservice.entity.User;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+
+/**
+ * Maps a row of the users table, as returned by the native statements in {@link UserWriteRepositoryImpl},
+ * to a detached {@link User}.
+ */
+class UserRowMapper implements RowMapper<User> {
+
+    /* Column list shared by every RETURNING clause so rows always map the same way */
+    static final String USER_COLUMNS = "id, email, first_name, last_name, phone_number, created_on, updated_on, version";
+
+    @Override
+    public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+        User user = new User();
+        user.setId(rs.getLong("id"));
+        user.setEmail(rs.getString("email"));
+        user.setFirstName(rs.getString("first_name"));
+        user.setLastName(rs.getString("last_name"));
+        user.setPhoneNumber(rs.getString("phone_number"));
+        user.setCreatedOn(rs.getObject("created_on", OffsetDateTime.class));
+        user.setUpdatedOn(rs.getObject("updated_on", OffsetDateTime.class));
+        user.setVersion(rs.getLong("version"));
+        return user;
+    }
+}
@@ -0,0 +1,177 @@
+package iam.userservice.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import iam.userservice.util.SearchFieldEscaper;
+import iam.userservice.util.UserFilterCriteria;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import static iam.userservice.config.AppConstants.EMAIL_FIELD;
+import static iam.userservice.config.AppConstants.FIRST_NAME_FIELD;
+import static iam.userservice.config.AppConstants.LAST_NAME_FIELD;
+import static iam.userservice.config.AppConstants.PHONE_NUMBER_FIELD;
+
+/**
+ * Compiles search criteria into parameterized JPQL once per shape of the criteria, rather than building a
+ * Criteria tree per search. Criteria queries are translated to SQL on every execution, while a JPQL string
+ * is translated once and then served from Hibernate's query plan cache.
+ * <p>
+ * The shape is which filters are present, with the number of values of each rounded up to a power of two,
+ * whether there is search text, and the sort. Value lists are padded to their bucket by repeating their last
+ * value, which doesn't change the result of the OR of LIKEs, so up to a hundred values need 8 queries, not 100.
+ * Values are only bound when the query runs, see {@link SearchQuery#bind(Query, UserFilterCriteria)}.
+ * <p>
+ * Filters are case-insensitive LIKEs on escaped values, OR-ed per field and AND-ed across fields, exact ids are
+ * compared with IN. Search text is a LIKE on any of the names, the email and the phone number.
+ * At most {@value #MAX_CACHED_QUERIES} shapes are kept, each adds a page and a count query to the plan cache.
+ */
+public class UserSearchQueryCompiler {
+
+    static final int MAX_CACHED_QUERIES = 256;
+
+    /* Sort properties are written into the JPQL, so only the entity's attributes are accepted */
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", EMAIL_FIELD, FIRST_NAME_FIELD,
+            LAST_NAME_FIELD, PHONE_NUMBER_FIELD, "createdOn", "updatedOn", "version");
+    private static final String ESCAPE = " escape '\\'";
+
+    private final Cache<Shape, SearchQuery> queries = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_QUERIES)
+            .build();
+
+    /**
+     * @param criteria the filters, may be null to match all users
+     * @param sort     the order of the page query
+     * @return the page and count queries for the shape of the criteria, compiled on first use
+     * @throws IllegalArgumentException if the sort refers to a property users can't be sorted by
+     */
+    public SearchQuery compile(UserFilterCriteria criteria, Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Users can't be sorted by '" + order.getProperty() + "'");
+            }
+        }
+        return queries.get(Shape.of(criteria, sort), SearchQuery::compile);
+    }
+
+    long size() {
+        return queries.estimatedSize();
+    }
+
+    /**
+     * The shape of a search: bucketed value counts per filter, 0 when the filter isn't used.
+     */
+    public record Shape(int userIds, boolean exactUserIds, int firstNames, int lastNames, int emails,
+                        int phoneNumbers, boolean searchText, Sort sort) {
+
+        static Shape of(UserFilterCriteria criteria, Sort sort) {
+            if (criteria == null) {
+                return new Shape(0, false, 0, 0, 0, 0, false, sort);
+            }
+            boolean exactUserIds = criteria.isExactUserIdsFlag() && size(criteria.getUserIds()) > 0;
+            return new Shape(exactUserIds ? 1 : bucket(criteria.getUserIds()), exactUserIds,
+                    bucket(criteria.getFirstNames()), bucket(criteria.getLastNames()), bucket(criteria.getEmails()),
+                    bucket(criteria.getPhoneNumbers()), StringUtils.hasText(criteria.getSearchText()), sort);
+        }
+
+        /* The next power of two, so lists of 5 to 8 values share a query */
+        private static int bucket(List<?> values) {
+            int size = size(values);
+            return size <= 1 ? size : Integer.highestOneBit(size - 1) << 1;
+        }
+    }
+
+    /**
+     * The compiled page and count queries of a shape.
+     *
+     * @param select JPQL of the page query
+     * @param count  JPQL of the count query
+     */
+    public record SearchQuery(Shape shape, String select, String count) {
+
+        private static SearchQuery compile(Shape shape) {
+            StringJoiner where = new StringJoiner(" and ", " where ", "").setEmptyValue("");
+            if (shape.exactUserIds()) {
+                where.add("u.id in :userIds");
+            } else {
+                addLikes(where, "lower(str(u.id))", "userIds", shape.userIds());
+            }
+            addLikes(where, "lower(u." + FIRST_NAME_FIELD + ")", "firstNames", shape.firstNames());
+            addLikes(where, "lower(u." + LAST_NAME_FIELD + ")", "lastNames", shape.lastNames());
+            addLikes(where, "lower(u." + EMAIL_FIELD + ")", "emails", shape.emails());
+            addLikes(where, "lower(u." + PHONE_NUMBER_FIELD + ")", "phoneNumbers", shape.phoneNumbers());
+            if (shape.searchText()) {
+                StringJoiner anyField = new StringJoiner(" or ", "(", ")");
+                for (String field : List.of(FIRST_NAME_FIELD, LAST_NAME_FIELD, EMAIL_FIELD, PHONE_NUMBER_FIELD)) {
+                    anyField.add("lower(u." + field + ") like :searchText" + ESCAPE);
+                }
+                where.add(anyField.toString());
+            }
+
+            StringJoiner orderBy = new StringJoiner(", ", " order by ", "").setEmptyValue("");
+            for (Sort.Order order : shape.sort()) {
+                String property = order.isIgnoreCase() ? "lower(u." + order.getProperty() + ")" : "u." + order.getProperty();
+                String nulls = switch (order.getNullHandling()) {
+                    case NULLS_FIRST -> " nulls first";
+                    case NULLS_LAST -> " nulls last";
+                    case NATIVE -> "";
+                };
+                orderBy.add(property + (order.isAscending() ? " asc" : " desc") + nulls);
+            }
+            return new SearchQuery(shape,
+                    "select u from User u" + where + orderBy,
+                    "select count(u) from User u" + where);
+        }
+
+        /**
+         * Binds the criteria's values to the page or count query, padding each list to its bucket.
+         */
+        public void bind(Query query, UserFilterCriteria criteria) {
+            if (criteria == null) {
+                return;
+            }
+            if (shape.exactUserIds()) {
+                query.setParameter("userIds", criteria.getUserIds());
+            } else {
+                bindLikes(query, "userIds", criteria.getUserIds(), shape.userIds());
+            }
+            bindLikes(query, "firstNames", criteria.getFirstNames(), shape.firstNames());
+            bindLikes(query, "lastNames", criteria.getLastNames(), shape.lastNames());
+            bindLikes(query, "emails", criteria.getEmails(), shape.emails());
+            bindLikes(query, "phoneNumbers", criteria.getPhoneNumbers(), shape.phoneNumbers());
+            if (shape.searchText()) {
+                query.setParameter("searchText", likePattern(criteria.getSearchText().trim()));
+            }
+        }
+
+        private static void addLikes(StringJoiner where, String field, String parameter, int bucket) {
+            if (bucket == 0) {
+                return;
+            }
+            StringJoiner anyValue = new StringJoiner(" or ", "(", ")");
+            for (int i = 0; i < bucket; i++) {
+                anyValue.add(field + " like :" + parameter + i + ESCAPE);
+            }
+            where.add(anyValue.toString());
+        }
+
+        private static void bindLikes(Query query, String parameter, List<?> values, int bucket) {
+            for (int i = 0; i < bucket; i++) {
+                query.setParameter(parameter + i, likePattern(String.valueOf(values.get(Math.min(i, values.size() - 1)))));
+            }
+        }
+
+        private static String likePattern(String value) {
+            return "%" + SearchFieldEscaper.escape(value.toLowerCase()) + "%";
+        }
+    }
+
+    private static int size(List<?> values) {
+        return values != null ? values.size() : 0;
+    }
+}
@@ -0,0 +1,43 @@
+package iam.userservice.repository;
+
+import iam.userservice.entity.User;
+import iam.userservice.util.UserFilterCriteria;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Searches users by {@link UserFilterCriteria}. The criteria are compiled into JPQL once per shape,
+ * see {@link UserSearchQueryCompiler}.
+ */
+public interface UserSearchRepository {
+
+    /**
+     * Reads one page of the users matching the criteria, in the order of the pageable's sort.
+     * Unlike a paged {@code findAll} it doesn't run the count query, so callers can time,
+     * skip or run it separately through {@link #countMatching(UserFilterCriteria)}.
+     *
+     * @param criteria the filters, may be null to match all users
+     * @param pageable page to read and its sort
+     * @return the users on the page
+     */
+    List<User> findContent(UserFilterCriteria criteria, Pageable pageable);
+
+    /**
+     * @param criteria the filters, may be null to match all users
+     * @return the number of users matching the criteria
+     */
+    long countMatching(UserFilterCriteria criteria);
+
+    /**
+     * Counts like {@link #countMatching(UserFilterCriteria)}, with the statement cancelled by the database
+     * once it runs longer than the timeout, rounded up to whole seconds.
+     *
+     * @param criteria the filters, may be null to match all users
+     * @param timeout  how long the count query may run
+     * @return the number of users matching the criteria
+     * @throws org.springframework.dao.QueryTimeoutException if the count ran into the timeout
+     */
+    long countMatching(UserFilterCriteria criteria, Duration timeout);
+}
@@ -0,0 +1,63 @@
+package iam.userservice.repository;
+
+import iam.userservice.entity.User;
+import iam.userservice.repository.UserSearchQueryCompiler.SearchQuery;
+import iam.userservice.util.UserFilterCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * JPQL implementation of {@link UserSearchRepository}, running the queries of {@link UserSearchQueryCompiler}.
+ * Picked up by Spring Data as the fragment implementation of {@link UserRepository}.
+ */
+@RequiredArgsConstructor
+public class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    private final EntityManager entityManager;
+    private final UserSearchQueryCompiler queryCompiler = new UserSearchQueryCompiler();
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findContent(UserFilterCriteria criteria, Pageable pageable) {
+        SearchQuery searchQuery = queryCompiler.compile(criteria, pageable.getSort());
+        TypedQuery<User> query = entityManager.createQuery(searchQuery.select(), User.class);
+        searchQuery.bind(query, criteria);
+        if (pageable.isPaged()) {
+            query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countMatching(UserFilterCriteria criteria) {
+        return countQuery(criteria).getSingleResult();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countMatching(UserFilterCriteria criteria, Duration timeout) {
+        // JDBC query timeouts are in seconds, rounded up so the caller's own timeout expires first
+        long seconds = Math.max(1, (timeout.toMillis() + 999) / 1000);
+        return countQuery(criteria)
+                .setHint(HibernateHints.HINT_TIMEOUT, (int) seconds)
+                .getSingleResult();
+    }
+
+    private TypedQuery<Long> countQuery(UserFilterCriteria criteria) {
+        // The count is the same in any order, so all sorts share one count query
+        SearchQuery searchQuery = queryCompiler.compile(criteria, Sort.unsorted());
+        TypedQuery<Long> query = entityManager.createQuery(searchQuery.count(), Long.class);
+        searchQuery.bind(query, criteria);
+        return query;
+    }
+}
@@ -0,0 +1,13 @@
+package iam.userservice.repository;
+
+import iam.userservice.entity.User;
+
+/**
+ * Outcome of an upsert keyed by email.
+ *
+ * @param user     the row as stored after the statement
+ * @param inserted true if the row didn't exist before and was inserted
+ * @param changed  true if the statement inserted or modified the row, false if the stored values already matched
+ */
+public record UserUpsertResult(User user, boolean inserted, boolean changed) {
+}
@@ -0,0 +1,82 @@
+package iam.userservice.repository;
+
+import iam.userservice.entity.User;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository fragment for write operations that need PostgreSQL specific SQL
+ * (e.g. ON CONFLICT and RETURNING clauses) and therefore can't be expressed with derived queries.
+ */
+public interface UserWriteRepository {
+
+    /**
+     * Inserts the user unless another user already owns the same (case-insensitive) email.
+     * The uniqueness check and the insert happen in a single statement, so there is no
+     * check-then-insert race between concurrent signups. Only a conflict on lower(email) is ignored,
+     * violations of any other constraint still fail the insert.
+     *
+     * @param user the user to insert, its email is expected to be normalized already
+     * @return the inserted row, or an empty Optional if the email is already taken
+     */
+    Optional<User> insertIfAbsent(User user);
+
+    /**
+     * Inserts the user, or updates the names and phone number of the user owning the same email,
+     * with a single INSERT ... ON CONFLICT (lower(email)) DO UPDATE statement.
+     * Rows whose stored values already match are left untouched, so their version isn't bumped.
+     *
+     * @param user the user to upsert, its email is expected to be normalized already
+     * @return the stored row and whether the statement changed it
+     */
+    UserUpsertResult upsertByEmail(User user);
+
+    /**
+     * Batched variant of {@link #upsertByEmail(User)}, executed as one statement.
+     *
+     * @param users the users to upsert, with normalized and distinct emails
+     * @return one result per given user, in no particular order
+     */
+    List<UserUpsertResult> upsertAllByEmail(List<User> users);
+
+    /**
+     * Applies new values to every given user whose stored version still equals the given version,
+     * in a single UPDATE ... FROM unnest(...) statement. Each updated row gets its version bumped.
+     * Users whose new email already belongs to another user are left unchanged.
+     *
+     * @param users users carrying the id, the expected version and the new (normalized) values, with distinct ids
+     * @return one result per given user (UPDATED, NOT_FOUND, CONFLICT or EMAIL_TAKEN), in no particular order
+     */
+    List<UserBulkWriteResult> updateAllIfVersionMatches(List<User> users);
+
+    /**
+     * Writes the names, phone number, update time and version of every given user whose stored version is
+     * lower than the given one, in a single UPDATE ... FROM unnest(...) statement. Used by the write-behind
+     * map store, whose users already carry their new version. Rows written directly in the meantime keep
+     * their (newer or equal) version and are left untouched.
+     *
+     * @param users users carrying the id, the new version and the new values, with distinct ids
+     * @return ids of the users left untouched although their stored names or phone number differ from the given
+     * ones, i.e. whose cached changes were dropped
+     */
+    List<Long> updateProfilesIfNewer(List<User> users);
+
+    /**
+     * Deletes the given users in a single DELETE ... RETURNING statement.
+     *
+     * @param ids ids of the users to delete
+     * @return one result per distinct id (DELETED or NOT_FOUND), in no particular order
+     */
+    List<UserBulkWriteResult> deleteAllByIdReturning(List<Long> ids);
+
+    /**
+     * Writes only the non-null fields of the given user, in a single UPDATE ... RETURNING statement
+     * that also bumps the version. If the given user carries a version, the row is only updated
+     * while its stored version still equals it, and only if a new email doesn't belong to another user.
+     *
+     * @param changes the id, the optional expected version and the new (normalized) values, at least one of them non-null
+     * @return the outcome for the id (UPDATED, NOT_FOUND, CONFLICT or EMAIL_TAKEN)
+     */
+    UserBulkWriteResult updateChangedColumns(User changes);
+}
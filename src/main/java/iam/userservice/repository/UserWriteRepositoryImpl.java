@@ -0,0 +1,315 @@
+package iam.userservice.repository;
+
+import iam.userservice.entity.User;
+import iam.userservice.repository.UserBulkWriteResult.Outcome;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static iam.userservice.repository.UserRowMapper.USER_COLUMNS;
+
+/**
+ * JDBC backed implementation of {@link UserWriteRepository}.
+ * Picked up by Spring Data as the fragment implementation of {@link UserRepository}.
+ */
+@RequiredArgsConstructor
+public class UserWriteRepositoryImpl implements UserWriteRepository {
+
+    private static final String INSERT_IF_ABSENT = """
+            INSERT INTO users (email, first_name, last_name, phone_number, created_on, updated_on, version)
+            VALUES (:email, :firstName, :lastName, :phoneNumber, now(), now(), 0)
+            ON CONFLICT ((lower(email))) DO NOTHING
+            RETURNING %s
+            """.formatted(USER_COLUMNS);
+
+    /*
+     * Unchanged rows are skipped by the DO UPDATE ... WHERE clause and so aren't returned by the INSERT,
+     * the second branch reads them from the statement snapshot instead. (xmax = 0) is only true for
+     * freshly inserted rows.
+     */
+    private static final String UPSERT_BY_EMAIL = """
+            WITH upserted AS (
+                INSERT INTO users AS u (email, first_name, last_name, phone_number, created_on, updated_on, version)
+                VALUES (:email, :firstName, :lastName, :phoneNumber, now(), now(), 0)
+                ON CONFLICT ((lower(email))) DO UPDATE
+                    SET first_name = EXCLUDED.first_name,
+                        last_name = EXCLUDED.last_name,
+                        phone_number = EXCLUDED.phone_number,
+                        updated_on = now(),
+                        version = u.version + 1
+                    WHERE (u.first_name, u.last_name, u.phone_number)
+                          IS DISTINCT FROM (EXCLUDED.first_name, EXCLUDED.last_name, EXCLUDED.phone_number)
+                RETURNING u.*, (u.xmax = 0) AS inserted
+            )
+            SELECT %1$s, inserted, true AS changed FROM upserted
+            UNION ALL
+            SELECT %1$s, false, false FROM users
+            WHERE lower(email) = :email AND NOT EXISTS (SELECT 1 FROM upserted)
+            """.formatted(USER_COLUMNS);
+
+    private static final String UPSERT_ALL_BY_EMAIL = """
+            WITH input AS (
+                SELECT * FROM unnest(CAST(:emails AS text[]), CAST(:firstNames AS text[]),
+                                     CAST(:lastNames AS text[]), CAST(:phoneNumbers AS text[]))
+                    AS i(email, first_name, last_name, phone_number)
+            ), upserted AS (
+                INSERT INTO users AS u (email, first_name, last_name, phone_number, created_on, updated_on, version)
+                SELECT email, first_name, last_name, phone_number, now(), now(), 0 FROM input
+                ON CONFLICT ((lower(email))) DO UPDATE
+                    SET first_name = EXCLUDED.first_name,
+                        last_name = EXCLUDED.last_name,
+                        phone_number = EXCLUDED.phone_number,
+                        updated_on = now(),
+                        version = u.version + 1
+                    WHERE (u.first_name, u.last_name, u.phone_number)
+                          IS DISTINCT FROM (EXCLUDED.first_name, EXCLUDED.last_name, EXCLUDED.phone_number)
+                RETURNING u.*, (u.xmax = 0) AS inserted
+            )
+            SELECT %1$s, inserted, true AS changed FROM upserted
+            UNION ALL
+            SELECT %1$s, false, false FROM users
+            WHERE lower(email) IN (SELECT email FROM input)
+              AND email NOT IN (SELECT email FROM upserted)
+            """.formatted(USER_COLUMNS);
+
+    /*
+     * The final SELECT reads 'users' from the snapshot taken before the UPDATE, so 'previous' tells apart
+     * missing rows from version conflicts and still carries the old email. Rows whose new email belongs to
+     * another user are left out of the UPDATE, a single one would otherwise fail the whole statement on the
+     * ux_users_email_lower index, and are reported through 'email_taken'.
+     */
+    private static final String UPDATE_ALL_IF_VERSION_MATCHES = """
+            WITH input AS (
+                SELECT * FROM unnest(CAST(:ids AS bigint[]), CAST(:versions AS bigint[]), CAST(:emails AS text[]),
+                                     CAST(:firstNames AS text[]), CAST(:lastNames AS text[]), CAST(:phoneNumbers AS text[]))
+                    AS i(id, version, email, first_name, last_name, phone_number)
+            ), taken AS (
+                SELECT i.id FROM input i
+                JOIN users other ON lower(other.email) = lower(i.email) AND other.id <> i.id
+            ), updated AS (
+                UPDATE users u
+                SET email = i.email,
+                    first_name = i.first_name,
+                    last_name = i.last_name,
+                    phone_number = i.phone_number,
+                    updated_on = now(),
+                    version = u.version + 1
+                FROM input i
+                WHERE u.id = i.id AND u.version = i.version AND i.id NOT IN (SELECT id FROM taken)
+                RETURNING u.*
+            )
+            SELECT i.id AS requested_id, previous.id IS NOT NULL AS found, previous.email AS previous_email,
+                   i.id IN (SELECT id FROM taken) AS email_taken,
+                   updated.id, updated.email, updated.first_name, updated.last_name, updated.phone_number,
+                   updated.created_on, updated.updated_on, updated.version
+            FROM input i
+            LEFT JOIN users previous ON previous.id = i.id
+            LEFT JOIN updated ON updated.id = i.id
+            """;
+
+    /*
+     * The email is never written behind, its uniqueness is only checked by statements that write it directly.
+     * Like in UPDATE_ALL_IF_VERSION_MATCHES, the final SELECT reads 'users' from before the UPDATE: rows it skipped
+     * whose stored profile differs from the cached one were changed directly, and the cached change is lost.
+     */
+    private static final String UPDATE_PROFILES_IF_NEWER = """
+            WITH input AS (
+                SELECT * FROM unnest(CAST(:ids AS bigint[]), CAST(:versions AS bigint[]), CAST(:firstNames AS text[]),
+                                     CAST(:lastNames AS text[]), CAST(:phoneNumbers AS text[]),
+                                     CAST(:updatedOns AS timestamptz[]))
+                    AS i(id, version, first_name, last_name, phone_number, updated_on)
+            ), updated AS (
+                UPDATE users u
+                SET first_name = i.first_name,
+                    last_name = i.last_name,
+                    phone_number = i.phone_number,
+                    updated_on = coalesce(i.updated_on, now()),
+                    version = i.version
+                FROM input i
+                WHERE u.id = i.id AND u.version < i.version
+                RETURNING u.id
+            )
+            SELECT i.id
+            FROM input i
+            JOIN users stored ON stored.id = i.id
+            WHERE i.id NOT IN (SELECT id FROM updated)
+              AND (stored.first_name, stored.last_name, stored.phone_number)
+                  IS DISTINCT FROM (i.first_name, i.last_name, i.phone_number)
+            """;
+
+    private static final String DELETE_ALL_BY_ID_RETURNING = """
+            WITH input AS (
+                SELECT DISTINCT unnest(CAST(:ids AS bigint[])) AS id
+            ), deleted AS (
+                DELETE FROM users u USING input i
+                WHERE u.id = i.id
+                RETURNING u.id, u.email
+            )
+            SELECT i.id AS requested_id, deleted.id IS NOT NULL AS found, deleted.email AS previous_email
+            FROM input i
+            LEFT JOIN deleted ON deleted.id = i.id
+            """;
+
+    /*
+     * %s is the SET list and the optional version predicate, both built from fixed column names only.
+     * A new email belonging to another user skips the UPDATE, like in UPDATE_ALL_IF_VERSION_MATCHES.
+     */
+    private static final String UPDATE_CHANGED_COLUMNS = """
+            WITH taken AS (
+                SELECT EXISTS (SELECT 1 FROM users other
+                               WHERE lower(other.email) = lower(CAST(:newEmail AS text)) AND other.id <> :id) AS taken
+            ), updated AS (
+                UPDATE users u
+                SET %s,
+                    updated_on = now(),
+                    version = u.version + 1
+                WHERE u.id = :id%s AND NOT (SELECT taken FROM taken)
+                RETURNING u.*
+            )
+            SELECT i.id AS requested_id, previous.id IS NOT NULL AS found, previous.email AS previous_email,
+                   (SELECT taken FROM taken) AS email_taken,
+                   updated.id, updated.email, updated.first_name, updated.last_name, updated.phone_number,
+                   updated.created_on, updated.updated_on, updated.version
+            FROM (SELECT CAST(:id AS bigint) AS id) i
+            LEFT JOIN users previous ON previous.id = i.id
+            LEFT JOIN updated ON updated.id = i.id
+            """;
+
+    private static final UserRowMapper USER_ROW_MAPPER = new UserRowMapper();
+    private static final RowMapper<UserUpsertResult> UPSERT_ROW_MAPPER = (rs, rowNum) -> new UserUpsertResult(
+            USER_ROW_MAPPER.mapRow(rs, rowNum),
+            rs.getBoolean("inserted"),
+            rs.getBoolean("changed"));
+    private static final RowMapper<UserBulkWriteResult> UPDATE_ROW_MAPPER = (rs, rowNum) -> {
+        long id = rs.getLong("requested_id");
+        if (rs.getObject("id") != null) {
+            return new UserBulkWriteResult(id, Outcome.UPDATED, USER_ROW_MAPPER.mapRow(rs, rowNum), rs.getString("previous_email"));
+        }
+        Outcome outcome;
+        if (!rs.getBoolean("found")) {
+            outcome = Outcome.NOT_FOUND;
+        } else if (rs.getBoolean("email_taken")) {
+            outcome = Outcome.EMAIL_TAKEN;
+        } else {
+            outcome = Outcome.CONFLICT;
+        }
+        return new UserBulkWriteResult(id, outcome, null, rs.getString("previous_email"));
+    };
+    private static final RowMapper<UserBulkWriteResult> DELETE_ROW_MAPPER = (rs, rowNum) -> new UserBulkWriteResult(
+            rs.getLong("requested_id"),
+            rs.getBoolean("found") ? Outcome.DELETED : Outcome.NOT_FOUND,
+            null,
+            rs.getString("previous_email"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<User> insertIfAbsent(User user) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("email", user.getEmail())
+                .addValue("firstName", user.getFirstName())
+                .addValue("lastName", user.getLastName())
+                .addValue("phoneNumber", user.getPhoneNumber());
+
+        return jdbcTemplate.query(INSERT_IF_ABSENT, params, USER_ROW_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public UserUpsertResult upsertByEmail(User user) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("email", user.getEmail())
+                .addValue("firstName", user.getFirstName())
+                .addValue("lastName", user.getLastName())
+                .addValue("phoneNumber", user.getPhoneNumber());
+
+        return jdbcTemplate.query(UPSERT_BY_EMAIL, params, UPSERT_ROW_MAPPER)
+                .stream()
+                .findFirst()
+                // Only reachable if a concurrent insert committed between the conflict check and the snapshot
+                .orElseThrow(() -> new IllegalStateException("Upserted user could not be read back"));
+    }
+
+    @Override
+    public List<UserUpsertResult> upsertAllByEmail(List<User> users) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("emails", users.stream().map(User::getEmail).toArray(String[]::new))
+                .addValue("firstNames", users.stream().map(User::getFirstName).toArray(String[]::new))
+                .addValue("lastNames", users.stream().map(User::getLastName).toArray(String[]::new))
+                .addValue("phoneNumbers", users.stream().map(User::getPhoneNumber).toArray(String[]::new));
+
+        return jdbcTemplate.query(UPSERT_ALL_BY_EMAIL, params, UPSERT_ROW_MAPPER);
+    }
+
+    @Override
+    public List<UserBulkWriteResult> updateAllIfVersionMatches(List<User> users) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", users.stream().map(User::getId).toArray(Long[]::new))
+                .addValue("versions", users.stream().map(User::getVersion).toArray(Long[]::new))
+                .addValue("emails", users.stream().map(User::getEmail).toArray(String[]::new))
+                .addValue("firstNames", users.stream().map(User::getFirstName).toArray(String[]::new))
+                .addValue("lastNames", users.stream().map(User::getLastName).toArray(String[]::new))
+                .addValue("phoneNumbers", users.stream().map(User::getPhoneNumber).toArray(String[]::new));
+
+        return jdbcTemplate.query(UPDATE_ALL_IF_VERSION_MATCHES, params, UPDATE_ROW_MAPPER);
+    }
+
+    @Override
+    public List<Long> updateProfilesIfNewer(List<User> users) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", users.stream().map(User::getId).toArray(Long[]::new))
+                .addValue("versions", users.stream().map(User::getVersion).toArray(Long[]::new))
+                .addValue("firstNames", users.stream().map(User::getFirstName).toArray(String[]::new))
+                .addValue("lastNames", users.stream().map(User::getLastName).toArray(String[]::new))
+                .addValue("phoneNumbers", users.stream().map(User::getPhoneNumber).toArray(String[]::new))
+                .addValue("updatedOns", users.stream()
+                        .map(user -> Objects.toString(user.getUpdatedOn(), null))
+                        .toArray(String[]::new));
+
+        return jdbcTemplate.queryForList(UPDATE_PROFILES_IF_NEWER, params, Long.class);
+    }
+
+    @Override
+    public List<UserBulkWriteResult> deleteAllByIdReturning(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids.toArray(Long[]::new));
+        return jdbcTemplate.query(DELETE_ALL_BY_ID_RETURNING, params, DELETE_ROW_MAPPER);
+    }
+
+    @Override
+    public UserBulkWriteResult updateChangedColumns(User changes) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", changes.getId())
+                .addValue("newEmail", changes.getEmail());
+        List<String> assignments = new ArrayList<>();
+        addAssignment(assignments, params, "email", "email", changes.getEmail());
+        addAssignment(assignments, params, "first_name", "firstName", changes.getFirstName());
+        addAssignment(assignments, params, "last_name", "lastName", changes.getLastName());
+        addAssignment(assignments, params, "phone_number", "phoneNumber", changes.getPhoneNumber());
+        if (assignments.isEmpty()) {
+            throw new IllegalArgumentException("At least one column must be changed");
+        }
+
+        String versionPredicate = "";
+        if (changes.getVersion() != null) {
+            versionPredicate = " AND u.version = :version";
+            params.addValue("version", changes.getVersion());
+        }
+
+        String sql = UPDATE_CHANGED_COLUMNS.formatted(String.join(", ", assignments), versionPredicate);
+        return jdbcTemplate.query(sql, params, UPDATE_ROW_MAPPER).get(0);
+    }
+
+    private static void addAssignment(List<String> assignments, MapSqlParameterSource params,
+                                      String column, String parameter, Object value) {
+        if (value != null) {
+            assignments.add(column + " = :" + parameter);
+            params.addValue(parameter, value);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package iam.userservice.service;
+
+import iam.userservice.exception.UserOptimisticLockException;
+import iam.userservice.repository.UserBulkWriteResult;
+import iam.userservice.repository.UserBulkWriteResult.Outcome;
+import iam.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+
+import static iam.userservice.service.UserService.CONCURRENT_MODIFICATION_MESSAGE;
+
+/**
+ * Retries idempotent, version-guarded user writes that lose a race against a concurrent update.
+ * Between attempts only the current version is re-read, the write itself is reapplied as is, so the last
+ * writer wins. Callers needing to detect concurrent changes must send a version and not retry instead.
+ * <p>
+ * Each attempt, the version read and the write, runs in a transaction of its own. Callers must not be in a
+ * transaction themselves, so the backoff between attempts holds no connection.
+ * Backoff is exponential with full jitter, so contending writers don't retry in lockstep.
+ * <p>
+ * Per endpoint, 'user.update.conflicts' counts every lost race, 'user.update.retries' every retried
+ * attempt and 'user.update.retries.exhausted' the writes given up on, which surfaces hot users.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    static final String CONFLICTS_METRIC = "user.update.conflicts";
+    static final String RETRIES_METRIC = "user.update.retries";
+    static final String EXHAUSTED_METRIC = "user.update.retries.exhausted";
+
+    private final UserRepository userRepository;
+    private final TransactionOperations transactionOperations;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticLockRetry(UserRepository userRepository, TransactionOperations transactionOperations,
+                               MeterRegistry meterRegistry,
+                               @Value("${user.update.retry.max-attempts:3}") int maxAttempts,
+                               @Value("${user.update.retry.initial-backoff-ms:10}") long initialBackoffMs,
+                               @Value("${user.update.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.userRepository = userRepository;
+        this.transactionOperations = transactionOperations;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    /**
+     * Runs the write against the current version of the user until it doesn't conflict or attempts run out.
+     *
+     * @param endpoint name of the calling endpoint, used as metric tag
+     * @param userId   user identifier
+     * @param write    the write, given the version it must match, runs in the attempt's transaction
+     * @return the UPDATED outcome, NOT_FOUND if there is no such user or EMAIL_TAKEN if the write's new email
+     * belongs to another user
+     * @throws UserOptimisticLockException if every attempt conflicted
+     * @throws IllegalStateException if called in a transaction
+     */
+    public UserBulkWriteResult execute(String endpoint, Long userId, LongFunction<UserBulkWriteResult> write) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "Retried writes must not run in a transaction, it would be held during the backoff");
+        for (int attempt = 1; ; attempt++) {
+            UserBulkWriteResult result = transactionOperations.execute(status -> attempt(userId, write));
+            if (result.outcome() != Outcome.CONFLICT) {
+                return result;
+            }
+
+            counter(CONFLICTS_METRIC, endpoint).increment();
+            if (attempt >= maxAttempts) {
+                counter(EXHAUSTED_METRIC, endpoint).increment();
+                log.warn("Giving up on user [id: {}] after {} conflicting attempts on '{}'", userId, attempt, endpoint);
+                throw new UserOptimisticLockException(CONCURRENT_MODIFICATION_MESSAGE);
+            }
+            counter(RETRIES_METRIC, endpoint).increment();
+            log.debug("Version conflict on user [id: {}], retrying '{}' (attempt {})", userId, endpoint, attempt + 1);
+            backoff(attempt);
+        }
+    }
+
+    private UserBulkWriteResult attempt(Long userId, LongFunction<UserBulkWriteResult> write) {
+        Optional<Long> version = userRepository.findVersionById(userId);
+        if (version.isEmpty()) {
+            return new UserBulkWriteResult(userId, Outcome.NOT_FOUND, null, null);
+        }
+        return write.apply(version.get());
+    }
+
+    /**
+     * Records a lost race on an endpoint that doesn't retry, e.g. writes carrying a client supplied version.
+     */
+    public void recordConflict(String endpoint) {
+        counter(CONFLICTS_METRIC, endpoint).increment();
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UserOptimisticLockException(CONCURRENT_MODIFICATION_MESSAGE);
+        }
+    }
+
+    private Counter counter(String name, String endpoint) {
+        return meterRegistry.counter(name, "endpoint", endpoint);
+    }
+}
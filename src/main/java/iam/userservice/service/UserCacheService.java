@@ -0,0 +1,141 @@
+package iam.userservice.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+import iam.userservice.entity.User;
+import iam.userservice.mapper.UserDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static iam.userservice.service.UserService.USERS;
+
+/**
+ * Writes to the 'users' cache for operations that bypass the Spring cache annotations,
+ * e.g. native upserts that return the stored row and can refresh the cache without another SELECT.
+ * Entries are keyed by user id, as with {@code @Cacheable(value = USERS, key = "#userId")}.
+ * Writes go to the Hazelcast map only, local copies on every member are invalidated by its entry events.
+ * With user.cache.write-behind.enabled, profile changes can be made in the cache alone and are written
+ * to the database later by the map store (see {@code UserMapStore}).
+ */
+@Component
+@Slf4j
+public class UserCacheService {
+
+    private final IMap<Object, Object> usersCache;
+    private final boolean writeBehind;
+
+    public UserCacheService(HazelcastInstance hazelcastInstance,
+                            @Value("${user.cache.write-behind.enabled:false}") boolean writeBehind) {
+        this.usersCache = hazelcastInstance.getMap(USERS);
+        this.writeBehind = writeBehind;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Stores the user under its id and drops the entry cached under its email,
+     * since {@code getUserByEmail} caches under the normalized email as well.
+     */
+    public void put(UserDto userDto) {
+        usersCache.set(userDto.getId(), userDto);
+        usersCache.delete(userDto.getEmail());
+        log.debug("Cache entry refreshed for user [id: {}]", userDto.getId());
+    }
+
+    /**
+     * Removes every given key, with all deletes in flight at once rather than one after the other.
+     * Deletes never go through the map loader, so keys that aren't cached cost no database read.
+     * Null keys are ignored, so callers can pass ids and emails of rows that didn't exist.
+     */
+    public void evictAll(Collection<?> keys) {
+        Set<Object> distinctKeys = keys.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (distinctKeys.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] deletes = distinctKeys.stream()
+                .map(key -> usersCache.deleteAsync(key).toCompletableFuture())
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(deletes).join();
+        log.debug("{} cache entries evicted", distinctKeys.size());
+    }
+
+    /**
+     * Applies the non-null names and phone number of the given changes to the cached user, loading it first if
+     * it isn't cached, and bumps its version. Runs on the member owning the user, so concurrent patches of the
+     * same user are applied one after the other. The map store writes the result to the database later.
+     *
+     * @param changes the id, the optional expected version and the new values, without an email
+     * @return the patch outcome, or empty if the user doesn't exist
+     * @throws IllegalStateException if write-behind is disabled
+     */
+    public Optional<PatchResult> patchProfile(User changes) {
+        if (!writeBehind) {
+            throw new IllegalStateException("Profiles can only be patched in the cache with write-behind enabled");
+        }
+        PatchResult result = (PatchResult) usersCache.executeOnKey(changes.getId(), new PatchProfileEntryProcessor(
+                changes.getFirstName(), changes.getLastName(), changes.getPhoneNumber(), changes.getVersion()));
+        if (result == null) {
+            return Optional.empty();
+        }
+        if (!result.conflict()) {
+            // Replaced rather than dropped, read-through would load the user as it still is in the database
+            usersCache.set(result.user().getEmail(), result.user());
+        }
+        log.debug("Cache entry patched for user [id: {}, conflict: {}]", changes.getId(), result.conflict());
+        return Optional.of(result);
+    }
+
+    /**
+     * @param user     the cached user after the patch, or as it is if the patch was rejected
+     * @param conflict whether the patch was rejected since the user is no longer at the expected version
+     */
+    public record PatchResult(UserDto user, boolean conflict) implements Serializable {
+    }
+
+    private static final class PatchProfileEntryProcessor implements EntryProcessor<Object, Object, Object> {
+        private final String firstName;
+        private final String lastName;
+        private final String phoneNumber;
+        private final Long expectedVersion;
+
+        private PatchProfileEntryProcessor(String firstName, String lastName, String phoneNumber, Long expectedVersion) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.phoneNumber = phoneNumber;
+            this.expectedVersion = expectedVersion;
+        }
+
+        @Override
+        public Object process(Map.Entry<Object, Object> entry) {
+            if (!(entry.getValue() instanceof UserDto user)) {
+                return null;
+            }
+            if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+                return new PatchResult(user, true);
+            }
+            user.setFirstName(Objects.requireNonNullElse(firstName, user.getFirstName()));
+            user.setLastName(Objects.requireNonNullElse(lastName, user.getLastName()));
+            user.setPhoneNumber(Objects.requireNonNullElse(phoneNumber, user.getPhoneNumber()));
+            user.setUpdatedOn(OffsetDateTime.now());
+            user.setVersion(Objects.requireNonNullElse(user.getVersion(), 0L) + 1);
+            entry.setValue(user);
+            return new PatchResult(user, false);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package iam.userservice.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.partition.MigrationListener;
+import com.hazelcast.partition.MigrationState;
+import com.hazelcast.partition.ReplicaMigrationEvent;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.QueryConstants;
+import iam.userservice.config.UserMapLoader;
+import iam.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static iam.userservice.service.UserService.USERS;
+
+/**
+ * Loads the most recently written users into the 'users' map, so a fresh cluster doesn't send every
+ * lookup to the database until the cache has filled by itself.
+ * <p>
+ * Runs once the application is ready and after every partition migration, e.g. when a member joins or
+ * leaves during a rolling deploy. Migration events reach every member, but the map is shared, so only the
+ * oldest member warms it. Users already in the map are skipped, the others are loaded through the map loader
+ * in batches with a pause between them. A batch is loaded by the owners of its partitions, one query per
+ * partition, and the loader runs at most 'user.cache.loader.max-concurrency' of them at a time on each member
+ * (see {@link UserMapLoader}). So a warm-up holds a few connections per member while a batch loads and none
+ * during the pauses.
+ * <p>
+ * 'user.cache.warmup' times each run and 'user.cache.warmup.users' counts the users it loaded, both tagged
+ * by trigger (startup, migration). 'user.cache.warmup.progress' is the share of the current run done so far.
+ */
+@Component
+@ConditionalOnProperty(name = "user.cache.warmup.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class UserCacheWarmer implements MigrationListener {
+
+    static final String STARTUP = "startup";
+    static final String MIGRATION = "migration";
+
+    private final HazelcastInstance hazelcastInstance;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final int size;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final IMap<Object, Object> usersCache;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-cache-warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong planned = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+
+    public UserCacheWarmer(HazelcastInstance hazelcastInstance, UserRepository userRepository, MeterRegistry meterRegistry,
+                           @Value("${user.cache.warmup.size:750}") int size,
+                           @Value("${user.cache.warmup.batch-size:100}") int batchSize,
+                           @Value("${user.cache.warmup.batch-pause:200ms}") Duration batchPause) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+        this.size = size;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.usersCache = hazelcastInstance.getMap(USERS);
+        Gauge.builder("user.cache.warmup.progress", this,
+                        warmer -> warmer.planned.get() == 0 ? 1.0 : (double) warmer.processed.get() / warmer.planned.get())
+                .register(meterRegistry);
+    }
+
+    /*
+     The migration listener is only added once the application is ready. The migrations caused by this member
+     joining are handled by the oldest member, which is already listening.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        hazelcastInstance.getPartitionService().addMigrationListener(this);
+        warmUpInBackground(STARTUP);
+    }
+
+    @Override
+    public void migrationFinished(MigrationState state) {
+        warmUpInBackground(MIGRATION);
+    }
+
+    @Override
+    public void migrationStarted(MigrationState state) {
+        // Only the end of a rebalance matters
+    }
+
+    @Override
+    public void replicaMigrationCompleted(ReplicaMigrationEvent event) {
+        // Only the end of a rebalance matters
+    }
+
+    @Override
+    public void replicaMigrationFailed(ReplicaMigrationEvent event) {
+        // Only the end of a rebalance matters
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void warmUpInBackground(String trigger) {
+        if (!isOldestMember()) {
+            log.debug("Cache warm-up on {} left to the oldest member", trigger);
+            return;
+        }
+        // A run already in progress fills the map just as well, so concurrent triggers are dropped
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Cache warm-up on {} skipped, a warm-up is already running", trigger);
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                warmUp(trigger);
+            } catch (RuntimeException e) {
+                log.warn("Cache warm-up on {} failed: {}", trigger, e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * Loads the most recently written users that aren't cached yet into the 'users' map.
+     *
+     * @return the number of users loaded
+     */
+    int warmUp(String trigger) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Long> ids = userRepository.findRecentlyUpdatedIds(Limit.of(size));
+        planned.set(ids.size());
+        processed.set(0);
+        log.info("Cache warm-up on {} started for {} users", trigger, ids.size());
+
+        int loaded = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            if (from > 0 && !pause()) {
+                break;
+            }
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            int batchLoaded = load(batch);
+            loaded += batchLoaded;
+            processed.addAndGet(batch.size());
+            meterRegistry.counter("user.cache.warmup.users", "trigger", trigger).increment(batchLoaded);
+        }
+
+        sample.stop(meterRegistry.timer("user.cache.warmup", "trigger", trigger));
+        log.info("Cache warm-up on {} finished, {} users loaded", trigger, loaded);
+        return loaded;
+    }
+
+    private int load(List<Long> batch) {
+        // Only keys are read, so the cached users aren't shipped to this member
+        Set<Object> cached = usersCache.keySet(
+                Predicates.in(QueryConstants.KEY_ATTRIBUTE_NAME.value(), batch.toArray(Long[]::new)));
+        Set<Object> missing = batch.stream()
+                .filter(id -> !cached.contains(id))
+                .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        // Read through the map loader, one query per partition with bounded concurrency, and unlike a put never
+        // written back by the map store nor replacing a user cached meanwhile
+        usersCache.loadAll(missing, false);
+        return missing.size();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Cache warm-up interrupted");
+            return false;
+        }
+    }
+
+    private boolean isOldestMember() {
+        return hazelcastInstance.getCluster().getMembers().iterator().next().localMember();
+    }
+}
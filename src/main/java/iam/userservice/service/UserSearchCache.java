@@ -0,0 +1,261 @@
+package iam.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import iam.userservice.mapper.UserDto;
+import iam.userservice.util.UserFilterCriteria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static iam.userservice.service.UserService.USERS;
+
+/**
+ * Caches search result pages per member, as the ids of the page and the total, not as users.
+ * A hit is hydrated from the 'users' map with one call, users missing there are read through by its map loader.
+ * <p>
+ * Every user write bumps a cluster wide generation, kept in a Hazelcast map and mirrored locally through its
+ * entry events, and pages cached under an older generation are treated as misses. A search reads the generation
+ * before it queries, and writes bump it after their transaction commits, so a page can't be cached under a
+ * generation that is newer than the data it was read from.
+ * <p>
+ * The cache is bounded by the estimated bytes of its entries (user.search.cache.max-size, 0 disables it).
+ * 'user.search.cache.gets' counts lookups by result (hit, miss, stale), 'user.search.cache.invalidations' the
+ * generation bumps of this member.
+ */
+@Component
+@Slf4j
+public class UserSearchCache {
+
+    static final String GENERATION_MAP = "user-search-generation";
+    static final String GETS_METRIC = "user.search.cache.gets";
+    private static final String GENERATION_KEY = "generation";
+    /* Rough size of a cached page without its ids and key strings: objects, headers and the Caffeine node */
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final IMap<Object, Object> usersCache;
+    private final IMap<String, Long> generations;
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<Key, CachedPage> pages;
+    private final boolean enabled;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter staleHits;
+    private final Counter invalidations;
+
+    public UserSearchCache(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry,
+                           @Value("${user.search.cache.max-size:16MB}") DataSize maxSize,
+                           @Value("${user.search.cache.time-to-live:5m}") Duration timeToLive) {
+        this.usersCache = hazelcastInstance.getMap(USERS);
+        this.enabled = maxSize.toBytes() > 0;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, CachedPage page) -> key.estimatedBytes() + page.estimatedBytes())
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+
+        this.generations = hazelcastInstance.getMap(GENERATION_MAP);
+        this.generations.addEntryListener(new GenerationListener(), true);
+        advanceGeneration(generations.get(GENERATION_KEY));
+
+        this.hits = getsCounter(meterRegistry, "hit");
+        this.misses = getsCounter(meterRegistry, "miss");
+        this.staleHits = getsCounter(meterRegistry, "stale");
+        this.invalidations = meterRegistry.counter("user.search.cache.invalidations");
+        Gauge.builder("user.search.cache.size", pages, Cache::estimatedSize).register(meterRegistry);
+        Gauge.builder("user.search.cache.bytes", pages, cache -> cache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0))
+                        .orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.search.cache.evictions", pages, cache -> cache.stats().evictionCount())
+                .register(meterRegistry);
+    }
+
+    /**
+     * The generation a search has to be cached under, read before the search queries.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @return the cached page, or empty if there is none for the current generation
+     *         or one of its users no longer exists
+     */
+    public Optional<Page<UserDto>> get(Key key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedPage page = pages.getIfPresent(key);
+        if (page == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (page.generation() != generation.get()) {
+            pages.invalidate(key);
+            staleHits.increment();
+            return Optional.empty();
+        }
+
+        Optional<List<UserDto>> content = hydrate(page.ids());
+        if (content.isEmpty()) {
+            pages.invalidate(key);
+            staleHits.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(new PageImpl<>(content.get(), key.pageable(), page.total()));
+    }
+
+    /**
+     * Caches the ids and total of a page, unless a user write happened since the given generation was read.
+     */
+    public void put(Key key, long searchGeneration, Page<UserDto> page) {
+        if (!enabled || searchGeneration != generation.get()) {
+            return;
+        }
+        long[] ids = page.getContent().stream().mapToLong(UserDto::getId).toArray();
+        pages.put(key, new CachedPage(searchGeneration, ids, page.getTotalElements()));
+    }
+
+    /**
+     * Invalidates every cached page on every member, once the current transaction commits if there is one.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpGeneration();
+                }
+            });
+        } else {
+            bumpGeneration();
+        }
+    }
+
+    private void bumpGeneration() {
+        advanceGeneration(generations.executeOnKey(GENERATION_KEY, new IncrementGeneration()));
+        invalidations.increment();
+        log.debug("Search cache generation advanced to {}", generation.get());
+    }
+
+    private void advanceGeneration(Long newGeneration) {
+        if (newGeneration != null) {
+            generation.accumulateAndGet(newGeneration, Math::max);
+        }
+    }
+
+    private Optional<List<UserDto>> hydrate(long[] ids) {
+        Set<Object> keys = Arrays.stream(ids).boxed().collect(Collectors.toSet());
+        Map<Object, Object> usersById = usersCache.getAll(keys);
+        List<UserDto> users = Arrays.stream(ids)
+                .mapToObj(usersById::get)
+                .filter(UserDto.class::isInstance)
+                .map(UserDto.class::cast)
+                .toList();
+        return users.size() == ids.length ? Optional.of(users) : Optional.empty();
+    }
+
+    private static Counter getsCounter(MeterRegistry meterRegistry, String result) {
+        return meterRegistry.counter(GETS_METRIC, "result", result);
+    }
+
+    /**
+     * Canonical form of a search: filter values are sorted and deduplicated, since each filter matches any
+     * of its values, missing filters are empty and the search text is trimmed, as the search itself does.
+     * Searches that only differ in that share a cached page.
+     */
+    public record Key(List<Long> userIds, boolean exactUserIds, List<String> firstNames, List<String> lastNames,
+                      List<String> emails, List<String> phoneNumbers, String searchText, Pageable pageable) {
+
+        public static Key of(UserFilterCriteria criteria, Pageable pageable) {
+            if (criteria == null) {
+                return new Key(List.of(), false, List.of(), List.of(), List.of(), List.of(), null, pageable);
+            }
+            List<Long> userIds = canonical(criteria.getUserIds());
+            return new Key(userIds, !userIds.isEmpty() && criteria.isExactUserIdsFlag(),
+                    canonical(criteria.getFirstNames()), canonical(criteria.getLastNames()),
+                    canonical(criteria.getEmails()), canonical(criteria.getPhoneNumbers()),
+                    StringUtils.hasText(criteria.getSearchText()) ? criteria.getSearchText().trim() : null, pageable);
+        }
+
+        private static <T extends Comparable<T>> List<T> canonical(List<T> values) {
+            if (values == null) {
+                return List.of();
+            }
+            return values.stream()
+                    .distinct()
+                    .sorted(Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .toList();
+        }
+
+        int estimatedBytes() {
+            int chars = Objects.toString(searchText, "").length();
+            for (List<String> values : List.of(firstNames, lastNames, emails, phoneNumbers)) {
+                chars += values.stream().filter(Objects::nonNull).mapToInt(String::length).sum();
+            }
+            return ENTRY_OVERHEAD_BYTES + 2 * chars + 16 * userIds.size();
+        }
+    }
+
+    record CachedPage(long generation, long[] ids, long total) {
+
+        int estimatedBytes() {
+            return 8 * ids.length;
+        }
+    }
+
+    private class GenerationListener implements EntryAddedListener<String, Long>, EntryUpdatedListener<String, Long> {
+
+        @Override
+        public void entryAdded(EntryEvent<String, Long> event) {
+            advanceGeneration(event.getValue());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<String, Long> event) {
+            advanceGeneration(event.getValue());
+        }
+    }
+
+    /* Runs on the member owning the generation, so concurrent bumps from different members don't get lost */
+    private static final class IncrementGeneration implements EntryProcessor<String, Long, Long> {
+        @Override
+        public Long process(Map.Entry<String, Long> entry) {
+            long next = Objects.requireNonNullElse(entry.getValue(), 0L) + 1;
+            entry.setValue(next);
+            return next;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package iam.userservice.service;
+
+import iam.userservice.util.UserFilterCriteria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.LongSupplier;
+
+/**
+ * Search metrics, tagged by the shape of the criteria rather than by their values:
+ * 'filters' lists the filter fields in use (in a fixed order, or 'none') and 'search_text' tells
+ * whether free-text search was combined with them. With five filter fields that stays below 100 series.
+ * <ul>
+ *     <li>'user.search' - duration of the page query</li>
+ *     <li>'user.search.count' - duration of the count query</li>
+ *     <li>'user.search.rows' - rows returned per page</li>
+ *     <li>'user.search.count.timeouts' - parallel counts given up on, their pages have an unknown total</li>
+ * </ul>
+ */
+@Component
+public class UserSearchMetrics {
+
+    static final String SEARCH_METRIC = "user.search";
+    static final String COUNT_METRIC = "user.search.count";
+    static final String ROWS_METRIC = "user.search.rows";
+    static final String COUNT_TIMEOUTS_METRIC = "user.search.count.timeouts";
+    static final String NO_FILTERS = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public UserSearchMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return the low-cardinality tags describing which parts of the criteria are used
+     */
+    public Tags shapeOf(UserFilterCriteria criteria) {
+        if (criteria == null) {
+            return Tags.of("filters", NO_FILTERS, "search_text", "false");
+        }
+        StringJoiner filters = new StringJoiner(",");
+        if (isPresent(criteria.getUserIds())) {
+            filters.add(criteria.isExactUserIdsFlag() ? "exactUserIds" : "userIds");
+        }
+        if (isPresent(criteria.getFirstNames())) {
+            filters.add("firstNames");
+        }
+        if (isPresent(criteria.getLastNames())) {
+            filters.add("lastNames");
+        }
+        if (isPresent(criteria.getEmails())) {
+            filters.add("emails");
+        }
+        if (isPresent(criteria.getPhoneNumbers())) {
+            filters.add("phoneNumbers");
+        }
+        return Tags.of("filters", filters.length() == 0 ? NO_FILTERS : filters.toString(),
+                "search_text", String.valueOf(StringUtils.hasText(criteria.getSearchText())));
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordSearch(Tags shape, Timer.Sample sample, int rows) {
+        sample.stop(Timer.builder(SEARCH_METRIC)
+                .description("Duration of user search page queries")
+                .tags(shape)
+                .register(meterRegistry));
+        DistributionSummary.builder(ROWS_METRIC)
+                .description("Users returned per search page")
+                .baseUnit("rows")
+                .tags(shape)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    public long timeCount(Tags shape, LongSupplier count) {
+        return Timer.builder(COUNT_METRIC)
+                .description("Duration of user search count queries")
+                .tags(shape)
+                .register(meterRegistry)
+                .record(count::getAsLong);
+    }
+
+    public void recordCountTimeout(Tags shape) {
+        Counter.builder(COUNT_TIMEOUTS_METRIC)
+                .description("Search count queries that didn't finish within the parallel count timeout")
+                .tags(shape)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static boolean isPresent(List<?> values) {
+        return values != null && !values.isEmpty();
+    }
+}
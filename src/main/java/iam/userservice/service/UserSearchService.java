@@ -3,20 +3,27 @@ package iam.userservice.service;
 import iam.userservice.mapper.UserDto;
 import iam.userservice.mapper.UserMapper;
 import iam.userservice.entity.User;
-import iam.userservice.repository.UserFilterSpecification;
-import iam.userservice.repository.UserSearchTextSpecification;
 import iam.userservice.util.Pagination;
 import iam.userservice.repository.UserRepository;
+import iam.userservice.slowquery.SlowQueryLog;
+import iam.userservice.util.UnknownTotalPage;
 import iam.userservice.util.UserFilterCriteria;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service to perform searching and filtering of users.
@@ -27,6 +34,10 @@ import org.springframework.util.StringUtils;
 public class UserSearchService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserSearchMetrics userSearchMetrics;
+    private final SlowQueryLog slowQueryLog;
+    private final UserSearchCache userSearchCache;
+    private final ParallelSearchCount parallelSearchCount;
 
     /**
      * Search for users based on filter criteria with pagination parameters.
@@ -34,7 +45,9 @@ public class UserSearchService {
      * @return a page of users matching the filter criteria
      */
     public Page<UserDto> searchUsers(UserFilterCriteria userFilterCriteria, Pagination pagination) {
-        log.info("Search users with criteria: {}, pagination: {}", userFilterCriteria, pagination);
+        // The criteria's toString is only worth its cost when debugging, INFO stays cheap on this hot path
+        log.info("Search users with pagination: {}", pagination);
+        log.debug("Search users with criteria: {}", userFilterCriteria);
 
         return searchUsers(userFilterCriteria, pagination.toPageable());
     }
@@ -50,8 +63,8 @@ public class UserSearchService {
      * @return a page of users matching the filter criteria
      */
     public Page<UserDto> searchUsers(UserFilterCriteria userFilterCriteria, int pageNo, int pageSize, String direction, String sortBy) {
-        log.info("Search users with criteria: {}, pageNo: {}, pageSize: {}, direction: {}, sortBy: {}",
-                userFilterCriteria, pageNo, pageSize, direction, sortBy);
+        log.info("Search users with pageNo: {}, pageSize: {}, direction: {}, sortBy: {}", pageNo, pageSize, direction, sortBy);
+        log.debug("Search users with criteria: {}", userFilterCriteria);
 
         Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by(getSortDirection(direction), sortBy));
         return searchUsers(userFilterCriteria, pageable);
@@ -60,16 +73,86 @@ public class UserSearchService {
 
     /**
      * Search for users based on filter criteria with pageable object.
+     * The page and count queries run separately, so each is timed per search shape (see {@link UserSearchMetrics}).
+     * Both are compiled to JPQL once per shape, see {@link iam.userservice.repository.UserSearchQueryCompiler}.
+     * A first or last page shorter than the page size gives its own total, the count query is then skipped.
+     * With {@link ParallelSearchCount} enabled, the count runs on another connection while the page is read,
+     * otherwise after it. Either way, a count slower than 'user.search.parallel-count.timeout' leaves the page
+     * with an unknown total ({@link UnknownTotalPage}).
+     * A parallel count made needless by a short page is cancelled rather than awaited.
+     * Searches slower than the slow-query threshold are captured by {@link SlowQueryLog}, only with the
+     * page statement when the count ran on another thread.
+     * Pages are served from {@link UserSearchCache} until a user write invalidates them.
      * 
      * @param userFilterCriteria the filter criteria
      * @param pageable the pageable object
      * @return a page of users matching the filter criteria
      */
     private Page<UserDto> searchUsers(UserFilterCriteria userFilterCriteria, Pageable pageable) {
-        Specification<User> spec = buildSpecification(userFilterCriteria);
+        UserSearchCache.Key cacheKey = UserSearchCache.Key.of(userFilterCriteria, pageable);
+        Optional<Page<UserDto>> cachedPage = userSearchCache.get(cacheKey);
+        if (cachedPage.isPresent()) {
+            return cachedPage.get();
+        }
+        // Read before querying, a write committing meanwhile keeps the page out of the cache
+        long generation = userSearchCache.generation();
+
+        Tags shape = userSearchMetrics.shapeOf(userFilterCriteria);
+
+        try (SlowQueryLog.Recording recording = slowQueryLog.record(shape)) {
+            long countStart = System.nanoTime();
+            CompletableFuture<Long> parallelCount = parallelSearchCount.start(() -> userSearchMetrics.timeCount(shape,
+                    () -> userRepository.countMatching(userFilterCriteria, parallelSearchCount.timeout())));
+
+            Timer.Sample sample = userSearchMetrics.start();
+            List<User> content = userRepository.findContent(userFilterCriteria, pageable);
+            userSearchMetrics.recordSearch(shape, sample, content.size());
+            recording.rows(content.size());
+
+            OptionalLong total = totalOf(content, pageable);
+            if (total.isPresent()) {
+                if (parallelCount != null) {
+                    parallelCount.cancel(false);
+                }
+            } else {
+                total = parallelCount != null
+                        ? parallelSearchCount.await(parallelCount, countStart)
+                        : countOnCaller(userFilterCriteria, shape);
+            }
+            if (total.isEmpty()) {
+                // Not cached, the next search of this page tries counting again
+                userSearchMetrics.recordCountTimeout(shape);
+                return new UnknownTotalPage<>(content, pageable).map(userMapper::toDto);
+            }
+            recording.total(total.getAsLong());
+
+            Page<UserDto> page = new PageImpl<>(content, pageable, total.getAsLong())
+                    .map(userMapper::toDto);
+            userSearchCache.put(cacheKey, generation, page);
+            return page;
+        }
+    }
+
+    /* Counts disabled, or rejected at their concurrency limit, run here with the same timeout as parallel ones */
+    private OptionalLong countOnCaller(UserFilterCriteria userFilterCriteria, Tags shape) {
+        try {
+            return OptionalLong.of(userSearchMetrics.timeCount(shape,
+                    () -> userRepository.countMatching(userFilterCriteria, parallelSearchCount.timeout())));
+        } catch (QueryTimeoutException e) {
+            return OptionalLong.empty();
+        }
+    }
 
-        return userRepository.findAll(spec, pageable)
-                .map(userMapper::toDto);
+    /*
+     Like PageableExecutionUtils, a first page or a last page shorter than the page size gives the total without
+     counting. Empty pages past the first one may still lie beyond the last page and need the count.
+     */
+    private static OptionalLong totalOf(List<User> content, Pageable pageable) {
+        boolean partial = content.size() < pageable.getPageSize();
+        if (partial && (pageable.getOffset() == 0 || !content.isEmpty())) {
+            return OptionalLong.of(pageable.getOffset() + content.size());
+        }
+        return OptionalLong.empty();
     }
 
     /**
@@ -84,20 +167,4 @@ public class UserSearchService {
         }
         return Sort.Direction.ASC;
     }
-
-    private Specification<User> buildSpecification(UserFilterCriteria userFilterCriteria) {
-//        return new UserFilterSpecification(userFilterCriteria);
-//         return new UserSearchFieldSpecification(userFilterCriteria);
-
-        Specification<User> filterSpec = new UserFilterSpecification(userFilterCriteria);
-
-        // If searchText is provided, combine filter specification with text search specification
-        if (userFilterCriteria != null && StringUtils.hasText(userFilterCriteria.getSearchText())) {
-            Specification<User> textSearchSpec = new UserSearchTextSpecification(userFilterCriteria);
-            // Combine both specifications with AND (user must match both filter criteria and text search)
-            return filterSpec.and(textSearchSpec);
-        }
-
-        return filterSpec;
-    }
 }
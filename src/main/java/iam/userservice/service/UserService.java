@@ -1,9 +1,13 @@
 package iam.userservice.service;
 
+import iam.userservice.mapper.UserBulkDeleteDto;
+import iam.userservice.mapper.UserBulkResultDto;
+import iam.userservice.mapper.UserBulkUpdateDto;
 import iam.userservice.mapper.UserDto;
 import iam.userservice.mapper.UserFilterDto;
 import iam.userservice.mapper.UserFilterMapper;
 import iam.userservice.mapper.UserMapper;
+import iam.userservice.mapper.UserPatchDto;
 import iam.userservice.mapper.UserRequestDto;
 import iam.userservice.entity.User;
 import iam.userservice.events.UserEmailUpdatedEvent;
@@ -11,16 +15,20 @@ import iam.userservice.exception.EventPublishingException;
 import iam.userservice.exception.ResourceAlreadyExistsException;
 import iam.userservice.exception.ResourceNotFoundException;
 import iam.userservice.exception.UserOptimisticLockException;
+import iam.userservice.exception.UserValidationException;
 import iam.userservice.util.Pagination;
+import iam.userservice.repository.UserBulkWriteResult;
 import iam.userservice.repository.UserRepository;
+import iam.userservice.repository.UserUpsertResult;
+import iam.userservice.util.EmailNormalizer;
 import iam.userservice.util.UserFilterCriteria;
-import jakarta.persistence.OptimisticLockException;
+import iam.userservice.validation.UserViolation;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
@@ -28,12 +36,25 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Every public method is timed as 'user.service', tagged with its method name. Caching wraps the observation
+ * (see {@link iam.userservice.UserServiceApplication}), so for cached reads the timer only covers the load
+ * on a cache miss, while hits and misses themselves are counted by 'cache.gets'.
+ */
 @Service
 @Slf4j
+@Observed(name = "user.service")
 public class UserService{
      private final UserRepository userRepository;
      private final UserMapper userMapper;
@@ -41,6 +62,9 @@ public class UserService{
      private final RabbitTemplate rabbitTemplate;
      private final UserSearchService userSearchService;
     private final UserFilterMapper userFilterMapper;
+    private final UserCacheService userCacheService;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final UserSearchCache userSearchCache;
 
     @Value("${rabbitmq.exchange.name}")
     private String exchangeName;
@@ -51,14 +75,27 @@ public class UserService{
     public static final String USER_NOT_FOUND_MESSAGE = "User not found";
     public static final String USER_ALREADY_EXISTS_MESSAGE = "User already exists";
     public static final String USERS = "users";
-
-    public UserService(UserRepository userRepository, UserMapper userMapper, UserValidationService userValidationService, RabbitTemplate rabbitTemplate, UserSearchService userSearchService, UserFilterMapper userFilterMapper) {
+    public static final String EMAIL_MISMATCH_MESSAGE = "Email in path and body must match";
+    public static final String DUPLICATE_IDS_MESSAGE = "Each user id may appear only once";
+    public static final String DUPLICATE_EMAILS_MESSAGE = "Each email may appear only once";
+    public static final String EMAIL_TAKEN_MESSAGE = "Email address is already in use";
+    public static final String MUST_NOT_BE_NULL_MESSAGE = "must not be null";
+    public static final String EMPTY_PATCH_MESSAGE = "Patch must change at least one field";
+    public static final String CONCURRENT_MODIFICATION_MESSAGE = "Concurrent modification detected. Please try again";
+    private static final String UPDATE_USER_ENDPOINT = "updateUser";
+    private static final String PATCH_USER_ENDPOINT = "patchUser";
+    private static final String BULK_UPDATE_USERS_ENDPOINT = "bulkUpdateUsers";
+
+    public UserService(UserRepository userRepository, UserMapper userMapper, UserValidationService userValidationService, RabbitTemplate rabbitTemplate, UserSearchService userSearchService, UserFilterMapper userFilterMapper, UserCacheService userCacheService, OptimisticLockRetry optimisticLockRetry, UserSearchCache userSearchCache) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.userValidationService = userValidationService;
         this.rabbitTemplate = rabbitTemplate;
         this.userSearchService = userSearchService;
         this.userFilterMapper = userFilterMapper;
+        this.userCacheService = userCacheService;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.userSearchCache = userSearchCache;
     }
 
     /*
@@ -86,99 +123,402 @@ public class UserService{
                         });
     }
 
-    @Cacheable(value = USERS, key = "#userEmail")
+    /*
+    Only well-formed emails are looked up in the cache: a miss there reads through to the database, and an invalid
+    email has to fail validation below instead. The key is the normalized email, the one writes evict.
+     */
+    @Cacheable(value = USERS, key = "T(iam.userservice.util.EmailNormalizer).normalize(#userEmail)",
+            condition = "#userEmail != null && T(iam.userservice.util.EmailSyntax).isValid(#userEmail)")
     public UserDto getUserByEmail(String userEmail) {
         log.info("Get user by userEmail '{}'", userEmail);
 
         userValidationService.validateUserEmail(userEmail);
-        Optional<User> userOptional =  userRepository.findByEmail(userEmail.toLowerCase());
+        Optional<User> userOptional =  userRepository.findByEmail(EmailNormalizer.normalize(userEmail));
         return userOptional.map(userMapper::toDto).orElse(null);
     }
 
+    /**
+     * Creates a user with a single INSERT ... ON CONFLICT (lower(email)) DO NOTHING statement.
+     * The unique index on lower(email) decides whether the email is taken, so there is
+     * no separate existence check and no window for concurrent signups with the same email.
+     *
+     * @param userRequestDto the user to create
+     * @return the created UserDto
+     */
     public UserDto createUser(UserRequestDto userRequestDto) {
-        log.info("Create user '{}'", userRequestDto);
+        log.info("Create user");
+        log.debug("Create user '{}'", userRequestDto);
 
         userValidationService.validateUserRequestDto(userRequestDto);
-        if (Boolean.TRUE.equals(userRepository.existsByEmailIgnoreCase(userRequestDto.getEmail()))) {
-            log.info("User [user email: {}] already exists", userRequestDto.getEmail());
-            throw new ResourceAlreadyExistsException(USER_ALREADY_EXISTS_MESSAGE);
-        }
-        User toBeSaved = userMapper.toEntity(userRequestDto);
-        var saved = userRepository.save(toBeSaved);
+        User toBeSaved = toNormalizedEntity(userRequestDto);
+        var saved = userRepository.insertIfAbsent(toBeSaved)
+                .orElseThrow(() -> {
+                    log.info("User [user email: {}] already exists", userRequestDto.getEmail());
+                    return new ResourceAlreadyExistsException(USER_ALREADY_EXISTS_MESSAGE);
+                });
         log.info("User [id: {}] created successfully", saved.getId());
+        userSearchCache.invalidate();
         return userMapper.toDto(saved);
     }
 
     /**
      * Updates user information and refreshes the cache.
-     * The 'unless' condition prevents caching when the operation fails due to
-     * optimistic locking (concurrent modification) or returns null.
-     * This ensures the cache is only updated with successful operations.
+     * The row is written with a single version-guarded UPDATE. A PUT carries the full new state and is
+     * idempotent, so a version conflict with a concurrent writer is retried server side against the
+     * re-read version (see {@link OptimisticLockRetry}) instead of being handed back to the client:
+     * the last writer wins, a 409 is only returned once the retries are exhausted.
+     * Not transactional itself, each attempt runs in its own transaction, which also publishes the email
+     * update event, so a failed publish rolls back the update.
+     * The 'unless' condition prevents caching when the operation returns null.
      *
      * @param userId user identifier
      * @param userRequestDto updated user information
      * @return the updated UserDto
      */
     @CachePut(value = USERS, key = "#userId", unless = "#result == null")
-    @Transactional
     public UserDto updateUser(Long userId, UserRequestDto userRequestDto) {
         log.info("Update user with id '{}'", userId);
 
         userValidationService.validateUserRequestDto(userRequestDto);
-        var existingUser = getExistingUser(userId);
+        User changes = toNormalizedEntity(userRequestDto);
+        changes.setId(userId);
+
+        UserBulkWriteResult result = optimisticLockRetry.execute(UPDATE_USER_ENDPOINT, userId, version -> {
+            changes.setVersion(version);
+            UserBulkWriteResult written = userRepository.updateChangedColumns(changes);
+            if (written.outcome() == UserBulkWriteResult.Outcome.UPDATED) {
+                // The @CachePut only refreshes the id key, the user is also cached under its email
+                userCacheService.evictAll(List.of(written.previousEmail(), written.user().getEmail()));
+                onEmailChanged(userId, written);
+            }
+            return written;
+        });
+        if (result.outcome() == UserBulkWriteResult.Outcome.NOT_FOUND) {
+            log.info("User with id '{}' not found", userId);
+            throw new ResourceNotFoundException(USER_NOT_FOUND_MESSAGE);
+        }
+        if (result.outcome() == UserBulkWriteResult.Outcome.EMAIL_TAKEN) {
+            log.info("User with id '{}' not updated, its new email is already in use", userId);
+            throw new ResourceAlreadyExistsException(EMAIL_TAKEN_MESSAGE);
+        }
+        log.info("User [id: {}] updated successfully", userId);
+        userSearchCache.invalidate();
 
-        // Only publish event if email actually changed
-        String oldEmail = existingUser.getEmail();
-        boolean emailChanged = !oldEmail.equals(userRequestDto.getEmail());
+        return userMapper.toDto(result.user());
+    }
 
-        // Update user fields
-        existingUser.setFirstName(userRequestDto.getFirstName());
-        existingUser.setLastName(userRequestDto.getLastName());
-        existingUser.setEmail(userRequestDto.getEmail());
-        existingUser.setPhoneNumber(userRequestDto.getPhoneNumber());
+    // Only publish event if email actually changed
+    private void onEmailChanged(Long userId, UserBulkWriteResult written) {
+        String oldEmail = written.previousEmail();
+        String newEmail = written.user().getEmail();
+        if (!oldEmail.equals(newEmail)) {
+            try {
+                publishEmailUpdateEvent(userId, oldEmail, newEmail);
+            } catch (AmqpException e) {
+                log.error("Failed to publish email update event for user '{}': {}", userId, e.getMessage());
+                throw new EventPublishingException("Failed to publish email update event: " + e.getMessage());
+            }
+        }
+    }
 
-        User updatedUser;
-        try {
-            updatedUser = userRepository.save(existingUser);
-            log.info("User [id: {}] updated successfully", userId);
-        } catch (OptimisticLockException e) {
-            log.error("Optimistic lock exception for user with id '{}'", userId);
-            throw new UserOptimisticLockException("Concurrent modification detected. Please try again");
+    /**
+     * Applies a JSON Merge Patch to a user with a single UPDATE of the patched columns only,
+     * without loading the entity first. The stored row returned by the statement refreshes the cache,
+     * and the email update event is only published when the patch changed the email.
+     * With write-behind enabled, patches that don't change the email are applied in the cache instead.
+     *
+     * @param userId user identifier
+     * @param userPatchDto fields to change, and optionally the version the patch is based on
+     * @return the updated UserDto
+     */
+    @Transactional
+    public UserDto patchUser(Long userId, UserPatchDto userPatchDto) {
+        log.info("Patch user with id '{}'", userId);
+
+        User changes = userMapper.toEntity(userPatchDto);
+        Assert.isTrue(changes.getEmail() != null || changes.getFirstName() != null
+                || changes.getLastName() != null || changes.getPhoneNumber() != null, EMPTY_PATCH_MESSAGE);
+        userValidationService.validateUserPatch(userMapper.toRequestDto(userPatchDto));
+        if (changes.getEmail() != null) {
+            changes.setEmail(EmailNormalizer.normalize(changes.getEmail()));
+        }
+        changes.setId(userId);
+        if (changes.getEmail() == null && userCacheService.isWriteBehind()) {
+            return patchProfileWriteBehind(changes);
+        }
+
+        UserBulkWriteResult result = userRepository.updateChangedColumns(changes);
+        switch (result.outcome()) {
+            case NOT_FOUND -> {
+                log.info("User with id '{}' not found", userId);
+                throw new ResourceNotFoundException(USER_NOT_FOUND_MESSAGE);
+            }
+            case CONFLICT -> {
+                log.info("User with id '{}' is no longer at version '{}'", userId, changes.getVersion());
+                optimisticLockRetry.recordConflict(PATCH_USER_ENDPOINT);
+                throw new UserOptimisticLockException(CONCURRENT_MODIFICATION_MESSAGE);
+            }
+            case EMAIL_TAKEN -> {
+                log.info("User with id '{}' not patched, its new email is already in use", userId);
+                throw new ResourceAlreadyExistsException(EMAIL_TAKEN_MESSAGE);
+            }
+            default -> log.info("User [id: {}] patched successfully", userId);
         }
 
-        // Only publish event if email changed
-        if (emailChanged) {
+        UserDto userDto = userMapper.toDto(result.user());
+        userCacheService.put(userDto);
+        userSearchCache.invalidate();
+
+        String newEmail = result.user().getEmail();
+        if (!result.previousEmail().equals(newEmail)) {
+            userCacheService.evictAll(List.of(result.previousEmail()));
             try {
-                publishEmailUpdateEvent(existingUser.getId(), oldEmail, userRequestDto.getEmail());
+                publishEmailUpdateEvent(userId, result.previousEmail(), newEmail);
             } catch (AmqpException e) {
                 log.error("Failed to publish email update event for user '{}': {}", userId, e.getMessage());
                 throw new EventPublishingException("Failed to publish email update event: " + e.getMessage());
             }
         }
+        return userDto;
+    }
+
+    /**
+     * Creates the user owning the given email, or updates its names and phone number, in a single statement.
+     * The cache is only refreshed when the statement actually inserted or changed the row.
+     * Since the email identifies the user here, it is never changed by an upsert and so
+     * no email update event is published.
+     *
+     * @param email email identifying the user, must match the email in the request body
+     * @param userRequestDto user information
+     * @return the stored UserDto
+     */
+    public UserDto upsertUserByEmail(String email, UserRequestDto userRequestDto) {
+        log.info("Upsert user by email '{}'", email);
+
+        userValidationService.validateUserRequestDto(userRequestDto);
+        String normalizedEmail = EmailNormalizer.normalize(userRequestDto.getEmail());
+        Assert.isTrue(normalizedEmail.equals(EmailNormalizer.normalize(email)), EMAIL_MISMATCH_MESSAGE);
+
+        UserUpsertResult result = userRepository.upsertByEmail(toNormalizedEntity(userRequestDto));
+        if (result.changed()) {
+            userSearchCache.invalidate();
+        }
+        return toCachedDto(result);
+    }
+
+    /**
+     * Batched variant of {@link #upsertUserByEmail(String, UserRequestDto)}, executed as one statement.
+     * When the same email appears more than once, the last entry wins.
+     *
+     * @param userRequestDtos users to create or update
+     * @return the stored UserDtos, one per distinct email, in request order
+     */
+    public List<UserDto> upsertUsersByEmail(List<UserRequestDto> userRequestDtos) {
+        log.info("Upsert {} users by email", userRequestDtos.size());
+
+        userValidationService.validateUserRequestDtos(userRequestDtos);
+        // ON CONFLICT can't touch the same row twice in one statement, so collapse duplicate emails first
+        Map<String, User> usersByEmail = userRequestDtos.stream()
+                .map(this::toNormalizedEntity)
+                .collect(Collectors.toMap(User::getEmail, Function.identity(), (first, last) -> last, LinkedHashMap::new));
+
+        List<UserUpsertResult> results = userRepository.upsertAllByEmail(List.copyOf(usersByEmail.values()));
+        if (results.stream().anyMatch(UserUpsertResult::changed)) {
+            userSearchCache.invalidate();
+        }
+        Map<String, UserDto> storedByEmail = results.stream()
+                .map(this::toCachedDto)
+                .collect(Collectors.toMap(UserDto::getEmail, Function.identity()));
+        log.info("Upserted {} distinct users by email", storedByEmail.size());
+
+        return usersByEmail.keySet().stream()
+                .map(storedByEmail::get)
+                .toList();
+    }
+
+    /**
+     * Updates several users in one set-based statement. Each row is only updated if its stored version
+     * still matches the given one, otherwise it is reported as CONFLICT and left untouched.
+     * All affected cache keys (ids, old and new emails) are evicted together, and an email update event
+     * is published for every row whose email changed. A failing publish rolls the whole batch back.
+     *
+     * @param userBulkUpdateDtos users to update, each with its id and expected version
+     * @return one result per requested id, in request order
+     */
+    @Transactional
+    public List<UserBulkResultDto> bulkUpdateUsers(List<UserBulkUpdateDto> userBulkUpdateDtos) {
+        log.info("Bulk update {} users", userBulkUpdateDtos.size());
+
+        requireIdsAndVersions(userBulkUpdateDtos);
+        userValidationService.validateUserRequestDtos(userBulkUpdateDtos.stream().map(userMapper::toRequestDto).toList());
+        List<Long> ids = userBulkUpdateDtos.stream().map(UserBulkUpdateDto::getId).toList();
+        Assert.isTrue(ids.stream().distinct().count() == ids.size(), DUPLICATE_IDS_MESSAGE);
+
+        List<User> users = userBulkUpdateDtos.stream()
+                .map(this::toNormalizedEntity)
+                .toList();
+        // Users of the batch swapping or sharing an email would collide with each other in the unique index
+        Assert.isTrue(users.stream().map(User::getEmail).distinct().count() == users.size(), DUPLICATE_EMAILS_MESSAGE);
+        Map<Long, UserBulkWriteResult> resultsById = userRepository.updateAllIfVersionMatches(users)
+                .stream()
+                .collect(Collectors.toMap(UserBulkWriteResult::id, Function.identity()));
+
+        List<Object> affectedKeys = new ArrayList<>();
+        for (UserBulkWriteResult result : resultsById.values()) {
+            if (result.outcome() == UserBulkWriteResult.Outcome.CONFLICT) {
+                optimisticLockRetry.recordConflict(BULK_UPDATE_USERS_ENDPOINT);
+            }
+            if (result.outcome() == UserBulkWriteResult.Outcome.UPDATED) {
+                affectedKeys.add(result.id());
+                affectedKeys.add(result.previousEmail());
+                affectedKeys.add(result.user().getEmail());
+            }
+        }
+        userCacheService.evictAll(affectedKeys);
+        if (!affectedKeys.isEmpty()) {
+            userSearchCache.invalidate();
+        }
+
+        resultsById.values().stream()
+                .filter(result -> result.outcome() == UserBulkWriteResult.Outcome.UPDATED)
+                .filter(result -> !result.previousEmail().equals(result.user().getEmail()))
+                .forEach(result -> {
+                    try {
+                        publishEmailUpdateEvent(result.id(), result.previousEmail(), result.user().getEmail());
+                    } catch (AmqpException e) {
+                        log.error("Failed to publish email update event for user '{}': {}", result.id(), e.getMessage());
+                        throw new EventPublishingException("Failed to publish email update event: " + e.getMessage());
+                    }
+                });
+        log.info("Bulk update finished for {} users", resultsById.size());
 
-        return userMapper.toDto(updatedUser);
+        return ids.stream()
+                .map(resultsById::get)
+                .map(this::toBulkResultDto)
+                .toList();
     }
 
     /**
-     * Deletes user and refreshes the cache.
+     * Deletes several users in one DELETE ... RETURNING statement and evicts their ids and emails
+     * from the cache in one call. Ids that don't exist are reported as NOT_FOUND.
+     *
+     * @param userBulkDeleteDto ids of the users to delete
+     * @return one result per distinct requested id, in request order
+     */
+    @Transactional
+    public List<UserBulkResultDto> bulkDeleteUsers(UserBulkDeleteDto userBulkDeleteDto) {
+        List<Long> ids = userBulkDeleteDto.getIds().stream().distinct().toList();
+        log.info("Bulk delete {} users", ids.size());
+
+        Map<Long, UserBulkWriteResult> resultsById = userRepository.deleteAllByIdReturning(ids)
+                .stream()
+                .collect(Collectors.toMap(UserBulkWriteResult::id, Function.identity()));
+
+        List<Object> affectedKeys = new ArrayList<>();
+        for (UserBulkWriteResult result : resultsById.values()) {
+            if (result.outcome() == UserBulkWriteResult.Outcome.DELETED) {
+                affectedKeys.add(result.id());
+                affectedKeys.add(result.previousEmail());
+            }
+        }
+        userCacheService.evictAll(affectedKeys);
+        if (!affectedKeys.isEmpty()) {
+            userSearchCache.invalidate();
+        }
+        log.info("Bulk delete finished for {} users", resultsById.size());
+
+        return ids.stream()
+                .map(resultsById::get)
+                .map(this::toBulkResultDto)
+                .toList();
+    }
+
+    /**
+     * Deletes user with a single DELETE statement and evicts it from the cache under both its id and email.
      * @param userId user identifier
      */
-    @CacheEvict(value = USERS, key = "#userId")
     public void deleteUser(Long userId) {
         log.info("Delete user with id '{}'", userId);
 
-        getExistingUser(userId);
-        userRepository.deleteById(userId);
+        UserBulkWriteResult result = userRepository.deleteAllByIdReturning(List.of(userId)).get(0);
+        if (result.outcome() == UserBulkWriteResult.Outcome.NOT_FOUND) {
+            log.info("User with id '{}' not found", userId);
+            throw new ResourceNotFoundException(USER_NOT_FOUND_MESSAGE);
+        }
+        userCacheService.evictAll(List.of(userId, result.previousEmail()));
         log.info("User with id '{}' deleted successfully", userId);
+        userSearchCache.invalidate();
     }
 
-    private User getExistingUser(Long userId) {
-        return userRepository
-                .findById(userId)
+    /*
+     Patches that leave the email alone are applied to the cached user and written to the database by the map store.
+     Email changes still go to the database directly, its unique index has to check them and they publish an event.
+     */
+    private UserDto patchProfileWriteBehind(User changes) {
+        UserCacheService.PatchResult result = userCacheService.patchProfile(changes)
                 .orElseThrow(() -> {
-                    log.info("User with id '{}' not found", userId);
+                    log.info("User with id '{}' not found", changes.getId());
                     return new ResourceNotFoundException(USER_NOT_FOUND_MESSAGE);
                 });
+        if (result.conflict()) {
+            log.info("User with id '{}' is no longer at version '{}'", changes.getId(), changes.getVersion());
+            optimisticLockRetry.recordConflict(PATCH_USER_ENDPOINT);
+            throw new UserOptimisticLockException(CONCURRENT_MODIFICATION_MESSAGE);
+        }
+        log.info("User [id: {}] patched, the database is written behind", changes.getId());
+        userSearchCache.invalidate();
+        return result.user();
+    }
+
+    private User toNormalizedEntity(UserRequestDto userRequestDto) {
+        User user = userMapper.toEntity(userRequestDto);
+        user.setEmail(EmailNormalizer.normalize(user.getEmail()));
+        return user;
+    }
+
+    /*
+     The generated controller doesn't cascade bean validation into the items of the bulk update body, so the
+     required id and version are checked here; the other fields go through the validation service.
+     */
+    private static void requireIdsAndVersions(List<UserBulkUpdateDto> userBulkUpdateDtos) {
+        List<UserViolation> violations = new ArrayList<>();
+        for (int i = 0; i < userBulkUpdateDtos.size(); i++) {
+            UserBulkUpdateDto userBulkUpdateDto = userBulkUpdateDtos.get(i);
+            if (userBulkUpdateDto.getId() == null) {
+                violations.add(new UserViolation(i, "id", MUST_NOT_BE_NULL_MESSAGE));
+            }
+            if (userBulkUpdateDto.getVersion() == null) {
+                violations.add(new UserViolation(i, "version", MUST_NOT_BE_NULL_MESSAGE));
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw UserValidationException.forBatch(violations);
+        }
+    }
+
+    private User toNormalizedEntity(UserBulkUpdateDto userBulkUpdateDto) {
+        User user = userMapper.toEntity(userBulkUpdateDto);
+        user.setEmail(EmailNormalizer.normalize(user.getEmail()));
+        return user;
+    }
+
+    private UserDto toCachedDto(UserUpsertResult result) {
+        UserDto userDto = userMapper.toDto(result.user());
+        if (result.changed()) {
+            userCacheService.put(userDto);
+            log.info("User [id: {}] {} by email", userDto.getId(), result.inserted() ? "created" : "updated");
+        }
+        return userDto;
+    }
+
+    private UserBulkResultDto toBulkResultDto(UserBulkWriteResult result) {
+        UserBulkResultDto resultDto = new UserBulkResultDto();
+        resultDto.setId(result.id());
+        resultDto.setStatus(UserBulkResultDto.StatusEnum.valueOf(result.outcome().name()));
+        if (result.user() != null) {
+            resultDto.setUser(userMapper.toDto(result.user()));
+        }
+        return resultDto;
     }
 
     private Sort.Direction getSortDirection(String direction) {
@@ -1,18 +1,58 @@
 package iam.userservice.service;
 
+import iam.userservice.exception.UserValidationException;
 import iam.userservice.mapper.UserRequestDto;
+import iam.userservice.util.EmailSyntax;
+import iam.userservice.validation.UserValidationPipeline;
+import iam.userservice.validation.UserViolation;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+import java.util.List;
+
 @Component
+@RequiredArgsConstructor
 public class UserValidationService {
-    private static final String EMAIL_PATTERN = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
     public static final String EMAIL_ADDRESS_CANNOT_BE_NULL = "Email address cannot be null";
     public static final String INVALID_EMAIL_ADDRESS_FORMAT = "Invalid email address format";
 
+    private final UserValidationPipeline userValidationPipeline;
+
+    /**
+     * Runs every validation rule over the user.
+     *
+     * @throws UserValidationException listing every violation, if any
+     */
     public void validateUserRequestDto(UserRequestDto userRequestDto) {
-        validateEmail(userRequestDto.getEmail());
-        // Add other validation rules as needed
+        List<UserViolation> violations = userValidationPipeline.validate(userRequestDto);
+        if (!violations.isEmpty()) {
+            throw UserValidationException.forUser(violations);
+        }
+    }
+
+    /**
+     * Runs every validation rule over the fields of a patch that are present.
+     *
+     * @throws UserValidationException listing every violation, if any
+     */
+    public void validateUserPatch(UserRequestDto patch) {
+        List<UserViolation> violations = userValidationPipeline.validatePatch(patch);
+        if (!violations.isEmpty()) {
+            throw UserValidationException.forUser(violations);
+        }
+    }
+
+    /**
+     * Validates a batch in a single pass, see {@link UserValidationPipeline#validateAll(List)}.
+     *
+     * @throws UserValidationException listing every violation of every user, if any
+     */
+    public void validateUserRequestDtos(List<UserRequestDto> userRequestDtos) {
+        List<UserViolation> violations = userValidationPipeline.validateAll(userRequestDtos);
+        if (!violations.isEmpty()) {
+            throw UserValidationException.forBatch(violations);
+        }
     }
 
     public void validateUserEmail(String userEmail) {
@@ -21,6 +61,6 @@ public class UserValidationService {
 
     private void validateEmail(String email) {
         Assert.notNull(email, EMAIL_ADDRESS_CANNOT_BE_NULL);
-        Assert.isTrue(email.matches(EMAIL_PATTERN), INVALID_EMAIL_ADDRESS_FORMAT);
+        Assert.isTrue(EmailSyntax.isValid(email), INVALID_EMAIL_ADDRESS_FORMAT);
     }
 }
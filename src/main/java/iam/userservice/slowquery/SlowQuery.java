@@ -0,0 +1,33 @@
+package iam.userservice.slowquery;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A search that took longer than the slow-query threshold. Only the shape of the search is kept,
+ * bound values never leave {@link StatementCapture}.
+ *
+ * @param capturedAt when the search finished
+ * @param durationMs duration of the whole search, page and count query
+ * @param filters    filter fields in use, as tagged on the search metrics
+ * @param searchText whether free-text search was used
+ * @param rows       rows on the returned page
+ * @param total      total matching rows, -1 if the count query didn't run
+ * @param statements the SQL statements executed, in order
+ * @param plan       EXPLAIN (ANALYZE, BUFFERS) of the slowest statement if this capture was sampled, else null
+ */
+public record SlowQuery(Instant capturedAt, long durationMs, String filters, boolean searchText, int rows, long total,
+                        List<Statement> statements, String plan) {
+
+    /**
+     * @param sql        normalized SQL
+     * @param binds      bind parameter types in order, runs of the same type collapsed, e.g. [string x3, integer x2]
+     * @param durationMs execution time of the statement
+     */
+    public record Statement(String sql, List<String> binds, long durationMs) {
+    }
+
+    SlowQuery withPlan(String plan) {
+        return new SlowQuery(capturedAt, durationMs, filters, searchText, rows, total, statements, plan);
+    }
+}
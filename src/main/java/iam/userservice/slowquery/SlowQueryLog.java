@@ -0,0 +1,210 @@
+package iam.userservice.slowquery;
+
+import iam.userservice.slowquery.StatementCapture.CapturedStatement;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the most recent slow searches in a bounded ring buffer, exposed by the 'slowqueries' actuator endpoint.
+ * <p>
+ * A search is recorded with {@link #record(Tags)}. When it exceeds 'user.search.slow-query.threshold-ms', it's logged
+ * and stored with its normalized SQL, bind types and row counts. A fraction ('explain-sample-rate') of the captures
+ * also gets an EXPLAIN (ANALYZE, BUFFERS) of its slowest statement. As EXPLAIN ANALYZE runs the query again, that
+ * happens on a single background thread, and captures are dropped rather than queued when it falls behind.
+ */
+@Component
+@Slf4j
+public class SlowQueryLog {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\?(?:, ?\\?)+\\)");
+    /* A predicate repeated once per value of a filter list, e.g. "u1_0.first_name like ? escape '\' or u1_0.first_name like ? escape '\'" */
+    private static final Pattern REPEATED_PREDICATE = Pattern.compile("(\\(?[\\w.()]+ (?:like|=|ilike) \\?(?: escape '.')?\\)?)(?: or \\1)+");
+    private static final int PLAN_QUEUE_CAPACITY = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long thresholdNanos;
+    private final int capacity;
+    private final double explainSampleRate;
+    private final Deque<SlowQuery> captures = new ArrayDeque<>();
+    private final ThreadPoolExecutor planExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(PLAN_QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public SlowQueryLog(JdbcTemplate jdbcTemplate,
+                        @Value("${user.search.slow-query.threshold-ms:500}") long thresholdMs,
+                        @Value("${user.search.slow-query.capacity:100}") int capacity,
+                        @Value("${user.search.slow-query.explain-sample-rate:0}") double explainSampleRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.capacity = Math.max(1, capacity);
+        this.explainSampleRate = explainSampleRate;
+    }
+
+    /**
+     * Starts capturing the statements the current thread executes, until the returned recording is closed.
+     *
+     * @param shape the 'filters' and 'search_text' tags of the search, see {@link iam.userservice.service.UserSearchMetrics}
+     */
+    public Recording record(Tags shape) {
+        StatementCapture.begin();
+        return new Recording(shape, System.nanoTime());
+    }
+
+    /**
+     * @return the captured slow searches, most recent first
+     */
+    public synchronized List<SlowQuery> captures() {
+        return List.copyOf(captures);
+    }
+
+    public synchronized void clear() {
+        captures.clear();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        planExecutor.shutdownNow();
+    }
+
+    private void complete(Recording recording, long durationNanos, List<CapturedStatement> statements) {
+        if (durationNanos < thresholdNanos) {
+            return;
+        }
+        Tags shape = recording.shape;
+        SlowQuery slowQuery = new SlowQuery(Instant.now(), TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                tag(shape, "filters"), Boolean.parseBoolean(tag(shape, "search_text")),
+                recording.rows, recording.total,
+                statements.stream().map(SlowQueryLog::toStatement).toList(), null);
+        log.warn("Slow search [{} ms, filters: {}, search text: {}, rows: {}, total: {}]: {}",
+                slowQuery.durationMs(), slowQuery.filters(), slowQuery.searchText(), slowQuery.rows(), slowQuery.total(),
+                slowQuery.statements());
+
+        if (!statements.isEmpty() && ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+            CapturedStatement slowest = statements.stream()
+                    .max((a, b) -> Long.compare(a.nanos(), b.nanos()))
+                    .orElseThrow();
+            planExecutor.execute(() -> add(slowQuery.withPlan(explain(slowest))));
+        } else {
+            add(slowQuery);
+        }
+    }
+
+    private synchronized void add(SlowQuery slowQuery) {
+        if (captures.size() == capacity) {
+            captures.removeLast();
+        }
+        captures.addFirst(slowQuery);
+    }
+
+    private String explain(CapturedStatement statement) {
+        if (!statement.sql().stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+            return null;
+        }
+        try {
+            return jdbcTemplate.query("EXPLAIN (ANALYZE, BUFFERS) " + statement.sql(), ps -> {
+                for (Map.Entry<Integer, Object> value : statement.values().entrySet()) {
+                    ps.setObject(value.getKey(), value.getValue());
+                }
+            }, rs -> {
+                StringJoiner plan = new StringJoiner("\n");
+                while (rs.next()) {
+                    plan.add(rs.getString(1));
+                }
+                return plan.toString();
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not explain slow search statement: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static SlowQuery.Statement toStatement(CapturedStatement statement) {
+        return new SlowQuery.Statement(normalize(statement.sql()), bindShape(List.copyOf(statement.types().values())),
+                TimeUnit.NANOSECONDS.toMillis(statement.nanos()));
+    }
+
+    /**
+     * Collapses whitespace, parameter lists and predicates repeated per list value, so that searches
+     * differing only in how many values a filter has share the same SQL.
+     */
+    static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        normalized = PARAMETER_LIST.matcher(normalized).replaceAll("(?...)");
+        return REPEATED_PREDICATE.matcher(normalized).replaceAll("$1 or ...");
+    }
+
+    /**
+     * @return the bind types, with runs of the same type collapsed, e.g. [string x3, integer x2]
+     */
+    static List<String> bindShape(List<String> types) {
+        List<String> shape = new ArrayList<>();
+        int run = 0;
+        for (int i = 0; i < types.size(); i++) {
+            run++;
+            if (i == types.size() - 1 || !types.get(i).equals(types.get(i + 1))) {
+                shape.add(run == 1 ? types.get(i) : types.get(i) + " x" + run);
+                run = 0;
+            }
+        }
+        return shape;
+    }
+
+    private static String tag(Tags tags, String key) {
+        return tags.stream()
+                .filter(tag -> tag.getKey().equals(key))
+                .map(Tag::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * A search being recorded. Row counts are set as they become known, closing it evaluates the capture.
+     */
+    public final class Recording implements AutoCloseable {
+        private final Tags shape;
+        private final long startNanos;
+        private int rows;
+        private long total = -1;
+
+        private Recording(Tags shape, long startNanos) {
+            this.shape = shape;
+            this.startNanos = startNanos;
+        }
+
+        public void rows(int rows) {
+            this.rows = rows;
+        }
+
+        public void total(long total) {
+            this.total = total;
+        }
+
+        @Override
+        public void close() {
+            complete(this, System.nanoTime() - startNanos, StatementCapture.end());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package iam.userservice.slowquery;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Records the prepared statements a thread executes between {@link #begin()} and {@link #end()}.
+ * <p>
+ * The DataSource is wrapped once at startup, by a plain delegate. Only connections obtained while a capture is
+ * active on the calling thread are wrapped in a proxy, and their prepared statements with them. Every other
+ * query pays for one ThreadLocal read per connection checkout, its statements run on the pool's own objects.
+ * So statements are only captured on connections obtained after {@link #begin()}, e.g. not within a transaction
+ * that was already open when the recording started.
+ */
+final class StatementCapture {
+
+    private static final ThreadLocal<List<CapturedStatement>> CURRENT = new ThreadLocal<>();
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+    private StatementCapture() {
+    }
+
+    /**
+     * @param sql    SQL as prepared, with '?' placeholders
+     * @param values bound values by parameter index, only held until the capture is evaluated
+     * @param types  bound types by parameter index, e.g. 'string', 'long' or 'null'
+     * @param nanos  execution time
+     */
+    record CapturedStatement(String sql, Map<Integer, Object> values, Map<Integer, String> types, long nanos) {
+    }
+
+    static void begin() {
+        CURRENT.set(new ArrayList<>());
+    }
+
+    static List<CapturedStatement> end() {
+        List<CapturedStatement> statements = CURRENT.get();
+        CURRENT.remove();
+        return statements == null ? List.of() : statements;
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return dataSource instanceof CapturingDataSource ? dataSource : new CapturingDataSource(dataSource);
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StatementCapture.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class CapturingDataSource extends DelegatingDataSource {
+
+        private CapturingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return capturing(obtainTargetDataSource().getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return capturing(obtainTargetDataSource().getConnection(username, password));
+        }
+
+        private static Connection capturing(Connection connection) {
+            return CURRENT.get() != null ? proxy(Connection.class, new ConnectionHandler(connection)) : connection;
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementCapture.invoke(target, method, args);
+            List<CapturedStatement> capture = CURRENT.get();
+            if (capture != null && result instanceof PreparedStatement statement && "prepareStatement".equals(method.getName())) {
+                return proxy(PreparedStatement.class, new PreparedStatementHandler(statement, (String) args[0], capture));
+            }
+            return result;
+        }
+    }
+
+    private static final class PreparedStatementHandler implements InvocationHandler {
+        private final PreparedStatement target;
+        private final String sql;
+        private final List<CapturedStatement> capture;
+        private final Map<Integer, Object> values = new TreeMap<>();
+        private final Map<Integer, String> types = new TreeMap<>();
+
+        private PreparedStatementHandler(PreparedStatement target, String sql, List<CapturedStatement> capture) {
+            this.target = target;
+            this.sql = sql;
+            this.capture = capture;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (isParameterSetter(method, args)) {
+                int index = (Integer) args[0];
+                values.put(index, "setNull".equals(name) ? null : args[1]);
+                types.put(index, name.substring(3).toLowerCase());
+            } else if ("clearParameters".equals(name)) {
+                values.clear();
+                types.clear();
+            } else if (EXECUTE_METHODS.contains(name) && (args == null || args.length == 0)) {
+                long start = System.nanoTime();
+                try {
+                    return StatementCapture.invoke(target, method, args);
+                } finally {
+                    capture.add(new CapturedStatement(sql, new TreeMap<>(values), new TreeMap<>(types), System.nanoTime() - start));
+                }
+            }
+            return StatementCapture.invoke(target, method, args);
+        }
+
+        /* setString(int, String), setLong(int, long), setNull(int, int) ..., but not setFetchSize(int) */
+        private static boolean isParameterSetter(Method method, Object[] args) {
+            return method.getName().startsWith("set") && args != null && args.length >= 2
+                    && method.getParameterTypes()[0] == int.class;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package iam.userservice.slowquery;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource so that {@link SlowQueryLog} recordings see the statements a search executes.
+ * The wrapper is a plain delegate that still unwraps to the pool, so Hikari metrics and health checks are
+ * unaffected, and connections are only proxied while a search is being recorded.
+ */
+@Component
+class StatementCapturePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource ? StatementCapture.wrap(dataSource) : bean;
+    }
+}
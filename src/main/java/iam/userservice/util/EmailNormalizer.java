@@ -0,0 +1,23 @@
+package iam.userservice.util;
+
+import java.util.Locale;
+
+/**
+ * Normalizes email addresses to the canonical form stored in the users table.
+ * Emails are persisted lower-cased so that the functional index on lower(email) serves
+ * every lookup and uniqueness check, regardless of how the client spelled the address.
+ */
+public final class EmailNormalizer {
+
+    private EmailNormalizer() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * @param email the email address as received from the client
+     * @return the lower-cased email address
+     */
+    public static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,62 @@
+package iam.userservice.util;
+
+/**
+ * Hand-written scanner for the email syntax accepted by the service, equivalent to a full match of
+ * {@code ^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$} but without a regex engine or any allocation.
+ * <p>
+ * Neither character class contains '@', so the address splits at its only '@'. The top level domain
+ * can't contain '.', so it is whatever follows the last '.' of the domain, and at least one domain
+ * character has to precede that dot.
+ */
+public final class EmailSyntax {
+
+    private EmailSyntax() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * @param email the email address to check, not null
+     * @return whether the email address is syntactically valid
+     */
+    public static boolean isValid(String email) {
+        int length = email.length();
+        int at = 0;
+        while (at < length && isLocalChar(email.charAt(at))) {
+            at++;
+        }
+        if (at == 0 || at == length || email.charAt(at) != '@') {
+            return false;
+        }
+
+        int lastDot = -1;
+        for (int i = at + 1; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot < at + 2 || length - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isAsciiLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
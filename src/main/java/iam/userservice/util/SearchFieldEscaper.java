@@ -0,0 +1,68 @@
+package iam.userservice.util;
+
+/**
+ * Escapes search input for use in a LIKE pattern with '\' as escape character, in a single pass.
+ * <p>
+ * Produces exactly what the former chain of {@code String.replace} calls produced:
+ * <ul>
+ *     <li>{@code \ % _ ' " ; [ ] ^} are prefixed with '\'</li>
+ *     <li>{@code --} is prefixed with '\', pairs being taken left to right</li>
+ *     <li>{@code /} is prefixed with '\' when it starts a block comment {@code /*}</li>
+ *     <li>{@code *} is prefixed with '\' when it ends a block comment {@code *}{@code /}, unless that '/'
+ *     already starts a new {@code /*} (the chain escaped {@code /*} before looking for the end marker)</li>
+ * </ul>
+ * Input without anything to escape is returned as is, without allocating.
+ */
+public final class SearchFieldEscaper {
+
+    private static final char ESCAPE = '\\';
+
+    private SearchFieldEscaper() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * @param searchField the raw search input, may be null
+     * @return the escaped input, or an empty string for null
+     */
+    public static String escape(String searchField) {
+        if (searchField == null) {
+            return "";
+        }
+
+        int length = searchField.length();
+        int first = 0;
+        while (first < length && !needsEscape(searchField, first, length)) {
+            first++;
+        }
+        if (first == length) {
+            return searchField;
+        }
+
+        StringBuilder escaped = new StringBuilder(length + 16).append(searchField, 0, first);
+        for (int i = first; i < length; i++) {
+            char c = searchField.charAt(i);
+            if (needsEscape(searchField, i, length)) {
+                escaped.append(ESCAPE);
+                if (c == '-') {
+                    // '--' is escaped as one token, the second dash is consumed with the first
+                    escaped.append(c);
+                    i++;
+                }
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static boolean needsEscape(String s, int i, int length) {
+        return switch (s.charAt(i)) {
+            case '\\', '%', '_', '\'', '"', ';', '[', ']', '^' -> true;
+            case '-' -> i + 1 < length && s.charAt(i + 1) == '-';
+            case '/' -> i + 1 < length && s.charAt(i + 1) == '*';
+            case '*' -> i + 1 < length && s.charAt(i + 1) == '/'
+                    && !(i + 2 < length && s.charAt(i + 2) == '*');
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package iam.userservice.util;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page whose count query didn't finish in time. Its total is only a lower bound: the users up to the end of
+ * this page, plus one when the page is full, so that hasNext() still tells whether to ask for the next page.
+ */
+public class UnknownTotalPage<T> extends PageImpl<T> {
+
+    public UnknownTotalPage(List<T> content, Pageable pageable) {
+        super(content, pageable, lowerBound(content, pageable));
+    }
+
+    @Override
+    public <U> Page<U> map(Function<? super T, ? extends U> converter) {
+        return new UnknownTotalPage<>(getConvertedContent(converter), getPageable());
+    }
+
+    private static long lowerBound(List<?> content, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return content.size();
+        }
+        return pageable.getOffset() + content.size() + (content.size() == pageable.getPageSize() ? 1 : 0);
+    }
+}
@@ -0,0 +1,27 @@
+package iam.userservice.validation;
+
+import iam.userservice.mapper.UserRequestDto;
+import iam.userservice.util.EmailSyntax;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static iam.userservice.service.UserValidationService.EMAIL_ADDRESS_CANNOT_BE_NULL;
+import static iam.userservice.service.UserValidationService.INVALID_EMAIL_ADDRESS_FORMAT;
+
+/**
+ * Checks the email syntax, see {@link EmailSyntax}.
+ */
+@Component
+@Order(1)
+public class EmailRule implements UserValidationRule {
+
+    static final String FIELD = "email";
+
+    @Override
+    public void validate(UserRequestDto userRequestDto, UserViolations violations) {
+        String email = userRequestDto.getEmail();
+        if (violations.isPresent(FIELD, email, EMAIL_ADDRESS_CANNOT_BE_NULL) && !EmailSyntax.isValid(email)) {
+            violations.add(FIELD, INVALID_EMAIL_ADDRESS_FORMAT);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package iam.userservice.validation;
+
+import iam.userservice.mapper.UserRequestDto;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks first and last name against the constraints of the API contract: 2 to 50 ASCII letters.
+ */
+@Component
+@Order(2)
+public class NameRule implements UserValidationRule {
+
+    static final int MIN_LENGTH = 2;
+    static final int MAX_LENGTH = 50;
+    static final String NAME_CANNOT_BE_NULL = "must not be null";
+    static final String INVALID_NAME_LENGTH = "size must be between " + MIN_LENGTH + " and " + MAX_LENGTH;
+    static final String INVALID_NAME_CHARACTERS = "must only contain letters A-Z";
+
+    @Override
+    public void validate(UserRequestDto userRequestDto, UserViolations violations) {
+        validateName("firstName", userRequestDto.getFirstName(), violations);
+        validateName("lastName", userRequestDto.getLastName(), violations);
+    }
+
+    private void validateName(String field, String name, UserViolations violations) {
+        if (!violations.isPresent(field, name, NAME_CANNOT_BE_NULL)) {
+            return;
+        }
+        if (name.length() < MIN_LENGTH || name.length() > MAX_LENGTH) {
+            violations.add(field, INVALID_NAME_LENGTH);
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                violations.add(field, INVALID_NAME_CHARACTERS);
+                return;
+            }
+        }
+    }
+}
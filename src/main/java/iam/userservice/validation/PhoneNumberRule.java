@@ -0,0 +1,42 @@
+package iam.userservice.validation;
+
+import iam.userservice.mapper.UserRequestDto;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the phone number against the constraint of the API contract: 10 to 13 digits, without '+' or separators.
+ * Phone numbers are stored as given, which is also what the search matches against.
+ */
+@Component
+@Order(3)
+public class PhoneNumberRule implements UserValidationRule {
+
+    static final String FIELD = "phoneNumber";
+    static final int MIN_DIGITS = 10;
+    static final int MAX_DIGITS = 13;
+    static final String PHONE_NUMBER_CANNOT_BE_NULL = "must not be null";
+    static final String INVALID_PHONE_NUMBER = "must be a phone number of " + MIN_DIGITS + " to " + MAX_DIGITS + " digits";
+
+    @Override
+    public void validate(UserRequestDto userRequestDto, UserViolations violations) {
+        String phoneNumber = userRequestDto.getPhoneNumber();
+        if (violations.isPresent(FIELD, phoneNumber, PHONE_NUMBER_CANNOT_BE_NULL) && !isValid(phoneNumber)) {
+            violations.add(FIELD, INVALID_PHONE_NUMBER);
+        }
+    }
+
+    static boolean isValid(String phoneNumber) {
+        int length = phoneNumber.length();
+        if (length < MIN_DIGITS || length > MAX_DIGITS) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = phoneNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package iam.userservice.validation;
+
+import iam.userservice.mapper.UserRequestDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Runs every {@link UserValidationRule} over users and collects all violations, instead of
+ * stopping at the first one. Batches are validated in a single pass.
+ */
+@Component
+public class UserValidationPipeline {
+
+    private final UserValidationRule[] rules;
+
+    public UserValidationPipeline(List<UserValidationRule> rules) {
+        this.rules = rules.toArray(UserValidationRule[]::new);
+    }
+
+    /**
+     * @param userRequestDto the user to validate
+     * @return the violations found, empty if the user is valid
+     */
+    public List<UserViolation> validate(UserRequestDto userRequestDto) {
+        UserViolations violations = new UserViolations(false);
+        applyRules(userRequestDto, violations);
+        return violations.toList();
+    }
+
+    /**
+     * @param patch the fields of a patch, absent (null) fields are left unchanged and not checked
+     * @return the violations found, empty if the patch is valid
+     */
+    public List<UserViolation> validatePatch(UserRequestDto patch) {
+        UserViolations violations = new UserViolations(true);
+        applyRules(patch, violations);
+        return violations.toList();
+    }
+
+    /**
+     * @param userRequestDtos the users to validate
+     * @return the violations found, ordered by the index of the user in the batch, empty if every user is valid
+     */
+    public List<UserViolation> validateAll(List<UserRequestDto> userRequestDtos) {
+        UserViolations violations = new UserViolations(false);
+        for (int i = 0; i < userRequestDtos.size(); i++) {
+            violations.moveTo(i);
+            applyRules(userRequestDtos.get(i), violations);
+        }
+        return violations.toList();
+    }
+
+    private void applyRules(UserRequestDto userRequestDto, UserViolations violations) {
+        for (UserValidationRule rule : rules) {
+            rule.validate(userRequestDto, violations);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package iam.userservice.validation;
+
+import iam.userservice.mapper.UserRequestDto;
+
+/**
+ * A single check of the {@link UserValidationPipeline}. Every rule bean is picked up by the pipeline
+ * and applied in {@link org.springframework.core.annotation.Order} order.
+ * Rules must be stateless, since batches may be validated in parallel.
+ */
+@FunctionalInterface
+public interface UserValidationRule {
+
+    /**
+     * Checks the user and adds a violation for every problem found. Must not throw for invalid input.
+     *
+     * @param userRequestDto the user to check, fields absent from a patch are null
+     * @param violations     where to report problems
+     */
+    void validate(UserRequestDto userRequestDto, UserViolations violations);
+}
@@ -0,0 +1,16 @@
+package iam.userservice.validation;
+
+/**
+ * A single validation failure.
+ *
+ * @param index   position of the invalid user in the validated batch, 0 when a single user was validated
+ * @param field   name of the invalid field
+ * @param message what is wrong with the field
+ */
+public record UserViolation(int index, String field, String message) {
+
+    @Override
+    public String toString() {
+        return "[" + index + "] " + field + " " + message;
+    }
+}
@@ -0,0 +1,53 @@
+package iam.userservice.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the violations found by {@link UserValidationRule}s, so rules report failures without throwing.
+ * Not thread safe, every thread validating a batch uses its own instance.
+ */
+public final class UserViolations {
+
+    private final boolean patch;
+    private List<UserViolation> violations;
+    private int index;
+
+    UserViolations(boolean patch) {
+        // Created by the pipeline only
+        this.patch = patch;
+    }
+
+    /**
+     * Records a violation for a missing field, unless validating a patch, whose absent fields are left unchanged.
+     *
+     * @return whether the field has a value to check
+     */
+    public boolean isPresent(String field, Object value, String message) {
+        if (value != null) {
+            return true;
+        }
+        if (!patch) {
+            add(field, message);
+        }
+        return false;
+    }
+
+    /**
+     * Records a violation for the user currently being validated.
+     */
+    public void add(String field, String message) {
+        if (violations == null) {
+            violations = new ArrayList<>();
+        }
+        violations.add(new UserViolation(index, field, message));
+    }
+
+    void moveTo(int index) {
+        this.index = index;
+    }
+
+    List<UserViolation> toList() {
+        return violations == null ? List.of() : violations;
+    }
+}
@@ -0,0 +1,27 @@
+-- Emails that differ only by case belong to what would become the same user. Merging them can't be done safely
+-- here, so the migration stops and names the users to merge (by id, emails aren't logged) before anything changes.
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(ids, '; ') INTO duplicates
+    FROM (SELECT string_agg(id::TEXT, ', ' ORDER BY id) AS ids
+          FROM users
+          GROUP BY lower(email)
+          HAVING count(*) > 1
+          ORDER BY min(id)
+          LIMIT 50) AS groups;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'Users whose emails differ only by case must be merged or deleted before emails become case-insensitive, user ids: %', duplicates;
+    END IF;
+END $$;
+
+-- The plain index and the UNIQUE constraint on email can't serve lower(email) lookups,
+-- so replace both with one functional unique index.
+DROP INDEX IF EXISTS idx_users_email;
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
+
+-- Store emails in a single, lower-cased form so that case-insensitive lookups and uniqueness agree.
+UPDATE users SET email = lower(email) WHERE email <> lower(email);
+
+CREATE UNIQUE INDEX ux_users_email_lower ON users (lower(email));
@@ -0,0 +1,3 @@
+-- Serves the cache warm-up, which reads the most recently written users first.
+-- Matches its ORDER BY updated_on DESC NULLS LAST, id DESC, so no sort is needed.
+CREATE INDEX idx_users_updated_on ON users (updated_on DESC NULLS LAST, id DESC);
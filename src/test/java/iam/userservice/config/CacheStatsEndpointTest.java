@@ -0,0 +1,103 @@
+package iam.userservice.config;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static iam.userservice.service.UserService.USERS;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Running cacheStatsEndpoint tests")
+class CacheStatsEndpointTest {
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void startMember() {
+        Config config = new Config();
+        config.setClusterName("cache-stats-endpoint-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void stopMember() {
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        hazelcastInstance.getMap(USERS).clear();
+    }
+
+    @Test
+    void cacheStats_shouldReportSizeHitRatioEventsAndTopKeys() {
+        CacheManager cacheManager = cacheManager();
+        CacheListener cacheListener = new CacheListener(meterRegistry, 1.0);
+        new CacheConfig(hazelcastInstance, cacheListener, cacheManager, null).configureCacheListener();
+        IMap<Object, Object> usersCache = hazelcastInstance.getMap(USERS);
+        usersCache.set(1L, "john");
+        usersCache.set(2L, "jane");
+        usersCache.set(2L, "jane smith");
+        usersCache.delete(1L);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertEquals(2L, cacheListener.eventCounts().get("added"));
+            assertEquals(1L, cacheListener.eventCounts().get("updated"));
+            assertEquals(1L, cacheListener.eventCounts().get("removed"));
+        });
+
+        Cache cache = cacheManager.getCache(USERS);
+        for (int i = 0; i < 3; i++) {
+            cache.get(2L);
+        }
+        cache.get(3L);
+        CacheStats stats = new CacheStatsEndpoint(hazelcastInstance, cacheManager, cacheListener).cacheStats(null);
+
+        assertEquals(USERS, stats.name());
+        assertEquals(1, stats.size());
+        assertEquals(1, stats.ownedEntries());
+        assertTrue(stats.memoryCostBytes() > 0);
+        assertEquals(0.75, stats.hitRatio());
+        assertEquals(List.of("2"), stats.topKeys());
+        assertEquals(1.0, meterRegistry.get(CacheListener.EVENTS_METRIC).tag("event", "removed").counter().count());
+    }
+
+    @Test
+    void cacheStats_shouldLimitTopKeys() {
+        CacheManager cacheManager = cacheManager();
+        Cache cache = cacheManager.getCache(USERS);
+        cache.put(4L, "john");
+        cache.put(5L, "jane");
+        CacheStatsEndpoint endpoint = new CacheStatsEndpoint(hazelcastInstance, cacheManager,
+                new CacheListener(meterRegistry, 0));
+
+        // Reads refill L1 until the entry events of the puts have invalidated it
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            cache.get(4L);
+            cache.get(5L);
+            assertEquals(1, endpoint.cacheStats(1).topKeys().size());
+        });
+        assertEquals(2, endpoint.cacheStats(null).topKeys().size());
+    }
+
+    private CacheManager cacheManager() {
+        return new TwoTierCacheConfig().cacheManager(hazelcastInstance, meterRegistry, 100, Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,92 @@
+package iam.userservice.config;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static iam.userservice.service.UserService.USERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Running cacheTuningEndpoint tests")
+class CacheTuningEndpointTest {
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheTuningEndpoint underTest = new CacheTuningEndpoint(hazelcastInstance, meterRegistry, 0.9);
+
+    @BeforeAll
+    static void startMember() {
+        Config config = new Config();
+        config.setClusterName("cache-tuning-endpoint-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.setProperty("hazelcast.partition.count", "1");
+        new UserCacheEvictionConfig()
+                .userCacheEvictionCustomizer(MaxSizePolicy.PER_NODE, 10, EvictionPolicy.LFU)
+                .customize(config);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+        IMap<Object, Object> usersCache = hazelcastInstance.getMap(USERS);
+        for (long id = 1; id <= 50; id++) {
+            usersCache.set(id, "user" + id);
+        }
+    }
+
+    @AfterAll
+    static void stopMember() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Test
+    void report_shouldRecommendBiggerSizeWhenEvictingBelowTargetHitRatio() {
+        record("hit", 95);
+        record("miss", 5);
+        // Read-through loads are hits of the map, but misses of the cache
+        Timer loads = Timer.builder(UserMapLoader.METRIC).tag("operation", "load").register(meterRegistry);
+        for (int i = 0; i < 40; i++) {
+            loads.record(Duration.ofMillis(1));
+        }
+
+        CacheTuningReport report = underTest.report();
+
+        assertEquals("PER_NODE", report.maxSizePolicy());
+        assertEquals("LFU", report.evictionPolicy());
+        assertTrue(report.evictions() > 0);
+        assertTrue(report.entries() <= 10);
+        assertTrue(report.averageEntryBytes() > 0);
+        assertEquals(0.55, report.hitRatio(), 0.001);
+        assertEquals(2 * report.entryBudget(), report.recommendedEntries());
+        assertTrue(report.recommendation().contains("double the size"), report.recommendation());
+    }
+
+    @Test
+    void report_shouldKeepSizeWithoutEnoughLookups() {
+        record("miss", 10);
+
+        CacheTuningReport report = underTest.report();
+
+        assertEquals(report.entryBudget(), report.recommendedEntries());
+        assertTrue(report.recommendation().startsWith("Not enough lookups"), report.recommendation());
+    }
+
+    private void record(String result, int lookups) {
+        Timer timer = Timer.builder(TwoTierCache.GETS_METRIC)
+                .tags("cache", USERS, "tier", "l2", "result", result)
+                .register(meterRegistry);
+        for (int i = 0; i < lookups; i++) {
+            timer.record(Duration.ofNanos(100));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package iam.userservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Running hibernateStatisticsMetrics tests")
+class HibernateStatisticsMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Statistics statistics = mock(Statistics.class);
+    private HibernateStatisticsMetrics underTest;
+
+    @BeforeEach
+    void setUp() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        underTest = new HibernateStatisticsMetrics(entityManagerFactory);
+    }
+
+    @Test
+    void bindTo_shouldPublishQueryPlanCacheHitsAndMisses() {
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getQueryPlanCacheHitCount()).thenReturn(40L);
+        when(statistics.getQueryPlanCacheMissCount()).thenReturn(2L);
+
+        underTest.bindTo(meterRegistry);
+
+        assertEquals(40, meterRegistry.get("hibernate.cache.query.plan").tag("result", "hit").functionCounter().count());
+        assertEquals(2, meterRegistry.get("hibernate.cache.query.plan").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void bindTo_shouldPublishNothingWithoutStatistics() {
+        underTest.bindTo(meterRegistry);
+
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+}
@@ -0,0 +1,46 @@
+package iam.userservice.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Running lazyStartupConfig tests")
+class LazyStartupConfigTest {
+
+    @Test
+    void entityManagerFactoryWithoutCacheDependency_shouldKeepOtherDependencies() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("cacheManager", new RootBeanDefinition(ConcurrentMapCacheManager.class));
+        beanFactory.registerBeanDefinition("hazelcastInstance", new RootBeanDefinition(HazelcastInstance.class));
+        RootBeanDefinition entityManagerFactory = new RootBeanDefinition(LocalContainerEntityManagerFactoryBean.class);
+        entityManagerFactory.setDependsOn("flywayInitializer", "cacheManager", "hazelcastInstance");
+        beanFactory.registerBeanDefinition("entityManagerFactory", entityManagerFactory);
+
+        LazyStartupConfig.entityManagerFactoryWithoutCacheDependency().postProcessBeanFactory(beanFactory);
+
+        assertArrayEquals(new String[]{"flywayInitializer"},
+                beanFactory.getBeanDefinition("entityManagerFactory").getDependsOn());
+    }
+
+    @Test
+    void readinessCriticalBeans_shouldOnlyExcludeInfrastructureFromLazyInit() {
+        LazyInitializationExcludeFilter filter = LazyStartupConfig.readinessCriticalBeans();
+
+        assertTrue(filter.isExcluded("dataSource", null, DataSource.class));
+        assertTrue(filter.isExcluded("flywayInitializer", null, FlywayMigrationInitializer.class));
+        assertTrue(filter.isExcluded("hazelcastInstance", null, HazelcastInstance.class));
+        assertFalse(filter.isExcluded("cacheManager", null, ConcurrentMapCacheManager.class));
+    }
+}
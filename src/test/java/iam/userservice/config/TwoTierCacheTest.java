@@ -0,0 +1,113 @@
+package iam.userservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.EntryEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Set;
+
+import static iam.userservice.service.UserService.USERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Running twoTierCache tests")
+class TwoTierCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConcurrentMapCache remote;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache(USERS);
+        cache = new TwoTierCache(remote, Caffeine.newBuilder().maximumSize(100).build(), meterRegistry);
+    }
+
+    @Test
+    void get_shouldServeRepeatedReadsFromLocalTier() {
+        remote.put(1L, "user");
+
+        assertEquals("user", cache.get(1L, String.class));
+        assertEquals("user", cache.get(1L, String.class));
+
+        assertEquals(1, gets("l1", "hit"));
+        assertEquals(1, gets("l1", "miss"));
+        assertEquals(1, gets("l2", "hit"));
+    }
+
+    @Test
+    void get_shouldNotCacheMissesLocally() {
+        assertNull(cache.get(1L));
+        remote.put(1L, "user");
+
+        assertEquals("user", cache.get(1L, String.class));
+        assertEquals(1, gets("l2", "miss"));
+        assertEquals(1, gets("l2", "hit"));
+    }
+
+    @Test
+    void get_shouldCacheNullValuesLocally() {
+        cache.put("unknown@example.com", null);
+
+        Cache.ValueWrapper valueWrapper = cache.get("unknown@example.com");
+
+        assertNotNull(valueWrapper);
+        assertNull(valueWrapper.get());
+        assertEquals(1, gets("l1", "hit"));
+    }
+
+    @Test
+    void putAndEvict_shouldWriteThroughToRemoteTier() {
+        cache.put(1L, "user");
+        assertEquals("user", remote.get(1L, String.class));
+
+        cache.evict(1L);
+        assertNull(remote.get(1L));
+        assertNull(cache.getLocalCache().getIfPresent(1L));
+    }
+
+    @Test
+    void invalidationListener_shouldDropLocalEntryWhenRemoteEntryChanges() {
+        cache.put(1L, "user");
+        remote.put(1L, "updated user");
+        assertEquals("user", cache.get(1L, String.class));
+
+        new LocalCacheInvalidationListener(cache).entryUpdated(entryEvent(1L));
+
+        assertEquals("updated user", cache.get(1L, String.class));
+    }
+
+    @Test
+    void cacheManager_shouldOnlyAddLocalTierToConfiguredCaches() {
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(
+                new ConcurrentMapCacheManager(),
+                Set.of(USERS), remoteCache -> new TwoTierCache(remoteCache, Caffeine.newBuilder().build(), meterRegistry));
+
+        assertInstanceOf(TwoTierCache.class, cacheManager.getCache(USERS));
+        assertInstanceOf(ConcurrentMapCache.class, cacheManager.getCache("other"));
+        assertSame(cacheManager.getCache(USERS), cacheManager.getCache(USERS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EntryEvent<Object, Object> entryEvent(Object key) {
+        EntryEvent<Object, Object> event = mock(EntryEvent.class);
+        when(event.getKey()).thenReturn(key);
+        when(event.getName()).thenReturn(USERS);
+        return event;
+    }
+
+    private long gets(String tier, String result) {
+        return meterRegistry.get(TwoTierCache.GETS_METRIC).tag("tier", tier).tag("result", result).timer().count();
+    }
+}
@@ -0,0 +1,101 @@
+package iam.userservice.config;
+
+import com.hazelcast.config.ClasspathYamlConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import iam.userservice.mapper.UserDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static iam.userservice.service.UserService.USERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("Running userDtoCompactSerializer tests")
+class UserDtoCompactSerializerTest {
+
+    private static final OffsetDateTime TIMESTAMP = OffsetDateTime.of(2024, 1, 1, 10, 0, 0, 0, ZoneOffset.ofHours(2));
+
+    private static HazelcastInstance hazelcastInstance;
+
+    @BeforeAll
+    static void startMember() {
+        Config config = new ClasspathYamlConfig("hazelcast.yaml");
+        config.setClusterName("user-dto-compact-serializer-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        // The map store needs Spring beans (see UserMapStoreConfig), plain map reads and writes are enough here
+        config.getMapConfig(USERS).getMapStoreConfig().setEnabled(false);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void stopMember() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Test
+    void users_shouldBeStoredInCompactFormat() {
+        SerializationService serializationService =
+                ((SerializationServiceSupport) hazelcastInstance).getSerializationService();
+
+        assertEquals(SerializationConstants.TYPE_COMPACT, serializationService.toData(user(1L)).getType());
+    }
+
+    @Test
+    void users_shouldRoundTripThroughTheUsersMap() {
+        IMap<Object, Object> users = hazelcastInstance.getMap(USERS);
+        UserDto user = user(2L);
+        UserDto userWithoutOptionals = new UserDto().id(3L).email("jane.doe@example.com");
+
+        users.set(user.getId(), user);
+        users.set(userWithoutOptionals.getId(), userWithoutOptionals);
+
+        assertEquals(user, users.get(2L));
+        assertEquals(userWithoutOptionals, users.get(3L));
+        assertNull(((UserDto) users.get(3L)).getCreatedOn());
+    }
+
+    @Test
+    void users_shouldBeReadableWhenWrittenByMemberWithNewerSchema() {
+        IMap<Object, Object> users = hazelcastInstance.getMap(USERS);
+        users.set(4L, GenericRecordBuilder.compact(UserDtoCompactSerializer.TYPE_NAME)
+                .setNullableInt64("id", 4L)
+                .setString("firstName", "John")
+                .setString("middleName", "Michael")
+                .setString("lastName", "Doe")
+                .setString("email", "john.doe4@example.com")
+                .setString("phoneNumber", "1234567890")
+                .setTimestampWithTimezone("createdOn", TIMESTAMP)
+                .setTimestampWithTimezone("updatedOn", TIMESTAMP)
+                .setNullableInt64("version", 1L)
+                .build());
+
+        UserDto user = (UserDto) users.get(4L);
+
+        assertEquals(user(4L).version(1L), user);
+    }
+
+    private static UserDto user(long id) {
+        return new UserDto()
+                .id(id)
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe" + id + "@example.com")
+                .phoneNumber("1234567890")
+                .createdOn(TIMESTAMP)
+                .updatedOn(TIMESTAMP)
+                .version(0L);
+    }
+}
@@ -0,0 +1,202 @@
+package iam.userservice.config;
+
+import com.hazelcast.config.ClasspathYamlConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import iam.userservice.entity.User;
+import iam.userservice.mapper.UserDto;
+import iam.userservice.mapper.UserMapper;
+import iam.userservice.repository.UserRepository;
+import iam.userservice.service.UserCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static iam.userservice.service.UserService.USERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Running userMapStore tests")
+class UserMapStoreTest {
+
+    private static final UserRepository userRepository = mock(UserRepository.class);
+    private static final UserMapper userMapper = mock(UserMapper.class);
+    private static final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private static HazelcastInstance hazelcastInstance;
+
+    private final UserCacheService userCacheService = new UserCacheService(hazelcastInstance, true);
+    private IMap<Object, Object> usersCache;
+
+    @BeforeAll
+    @SuppressWarnings("unchecked")
+    static void startMember() {
+        Config config = new ClasspathYamlConfig("hazelcast.yaml");
+        config.setClusterName("user-map-store-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        ObjectProvider<UserRepository> repositoryProvider = mock(ObjectProvider.class);
+        when(repositoryProvider.getObject()).thenReturn(userRepository);
+        config.getMapConfig(USERS).getMapStoreConfig()
+                .setImplementation(new UserMapStore(repositoryProvider, userMapper, meterRegistry, 2))
+                .setWriteDelaySeconds(1);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void stopMember() {
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        usersCache = hazelcastInstance.getMap(USERS);
+        usersCache.evictAll();
+        clearInvocations(userRepository);
+        when(userMapper.toDto(any(User.class))).thenAnswer(invocation -> toDto(invocation.getArgument(0)));
+        when(userMapper.toEntity(any(UserDto.class))).thenAnswer(invocation -> toEntity(invocation.getArgument(0)));
+    }
+
+    @Test
+    void get_shouldReadThroughByIdAndByEmail() {
+        User user = user(1L, 0L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findByEmail("John.Doe@example.com")).thenReturn(Optional.of(user));
+
+        assertEquals(toDto(user), usersCache.get(1L));
+        assertEquals(toDto(user), usersCache.get("John.Doe@example.com"));
+        assertNull(usersCache.get(2L));
+    }
+
+    @Test
+    void get_shouldNotLookUpInvalidEmails() {
+        assertNull(usersCache.get("not-an-email"));
+        assertEquals(0, usersCache.getAll(Set.of("' or 1=1 --", "a@b")).size());
+
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void getAll_shouldLoadMissingIdsInBatches() {
+        when(userRepository.findAllById(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0)
+                .stream().map(id -> user(id, 0L)).toList());
+
+        assertEquals(3, usersCache.getAll(Set.of(1L, 2L, 3L)).size());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void evict_shouldNeverDeleteUsers() {
+        usersCache.set(1L, toDto(user(1L, 0L)));
+
+        userCacheService.evictAll(List.of(1L, 5L, 6L, "user7@example.com"));
+        usersCache.delete(2L);
+
+        assertTrue(usersCache.isEmpty());
+        // Evicting users that aren't cached doesn't load them first
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).findAllById(anyList());
+        verify(userRepository, never()).findByEmail(any());
+        verify(userRepository, never()).deleteAllByIdReturning(anyList());
+    }
+
+    @Test
+    void patchProfile_shouldUpdateCacheAndWriteBehind() {
+        when(userRepository.findById(3L)).thenReturn(Optional.of(user(3L, 4L)));
+        User changes = new User();
+        changes.setId(3L);
+        changes.setFirstName("Jane");
+
+        UserCacheService.PatchResult result = userCacheService.patchProfile(changes).orElseThrow();
+
+        assertEquals("Jane", result.user().getFirstName());
+        assertEquals(5L, result.user().getVersion());
+        assertEquals("Jane", ((UserDto) usersCache.get(3L)).getFirstName());
+        assertEquals("Jane", ((UserDto) usersCache.get(result.user().getEmail())).getFirstName());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> stored = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, timeout(10_000)).updateProfilesIfNewer(stored.capture());
+        assertEquals(1, stored.getValue().size());
+        assertEquals("Jane", stored.getValue().get(0).getFirstName());
+        assertEquals(5L, stored.getValue().get(0).getVersion());
+    }
+
+    @Test
+    void storeAll_shouldCountChangesDroppedInFavourOfDirectWrites() throws InterruptedException {
+        when(userRepository.findById(8L)).thenReturn(Optional.of(user(8L, 1L)));
+        when(userRepository.updateProfilesIfNewer(argThat(users -> users.stream().anyMatch(u -> u.getId() == 8L))))
+                .thenReturn(List.of(8L));
+        User changes = new User();
+        changes.setId(8L);
+        changes.setFirstName("Jane");
+
+        userCacheService.patchProfile(changes).orElseThrow();
+
+        verify(userRepository, timeout(10_000)).updateProfilesIfNewer(argThat(users -> users.stream().anyMatch(u -> u.getId() == 8L)));
+        // Counted by the write-behind thread right after the statement returned
+        Counter dropped = meterRegistry.get("user.cache.write.behind.dropped").tag("cache", USERS).counter();
+        for (int i = 0; i < 100 && dropped.count() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, dropped.count());
+    }
+
+    @Test
+    void patchProfile_shouldRejectPatchOfOutdatedVersion() {
+        when(userRepository.findById(4L)).thenReturn(Optional.of(user(4L, 2L)));
+        User changes = new User();
+        changes.setId(4L);
+        changes.setLastName("Smith");
+        changes.setVersion(1L);
+
+        UserCacheService.PatchResult result = userCacheService.patchProfile(changes).orElseThrow();
+
+        assertTrue(result.conflict());
+        assertEquals("Doe", ((UserDto) usersCache.get(4L)).getLastName());
+    }
+
+    private static User user(long id, long version) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setPhoneNumber("1234567890");
+        user.setVersion(version);
+        return user;
+    }
+
+    private static UserDto toDto(User user) {
+        return new UserDto().id(user.getId()).email(user.getEmail()).firstName(user.getFirstName())
+                .lastName(user.getLastName()).phoneNumber(user.getPhoneNumber()).version(user.getVersion());
+    }
+
+    private static User toEntity(UserDto userDto) {
+        User user = user(userDto.getId(), userDto.getVersion());
+        user.setFirstName(userDto.getFirstName());
+        user.setLastName(userDto.getLastName());
+        return user;
+    }
+}
@@ -0,0 +1,44 @@
+package iam.userservice.config;
+
+import iam.userservice.config.logging.LogRateLimitFilter;
+import iam.userservice.mapper.UserDto;
+import iam.userservice.mapper.UserRequestDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Running userServiceRuntimeHints tests")
+class UserServiceRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    UserServiceRuntimeHintsTest() {
+        new UserServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_shouldCoverJsonBindingOfApiDtos() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(UserRequestDto.class.getMethod("getEmail")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(UserDto.class.getMethod("setEmail", String.class)).test(hints));
+    }
+
+    @Test
+    void registerHints_shouldCoverHazelcastSerializationOfCachedUsers() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserDtoCompactSerializer.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("hazelcast.yaml").test(hints));
+    }
+
+    @Test
+    void registerHints_shouldCoverProxiesAndLoggingClasses() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(LogRateLimitFilter.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+    }
+}
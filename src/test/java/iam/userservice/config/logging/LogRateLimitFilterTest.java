@@ -0,0 +1,65 @@
+package iam.userservice.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Running logRateLimitFilter tests")
+class LogRateLimitFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LogRateLimitFilter underTest = new LogRateLimitFilter();
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(meterRegistry);
+        underTest.setLoggers("iam.userservice.service, iam.userservice.controller");
+        underTest.setPermitsPerSecond(3);
+        underTest.setSampleEvery(5);
+        underTest.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @Test
+    void decide_shouldPassPermitsThenSampleInfoLogsOfLimitedLoggers() {
+        Logger logger = loggerContext.getLogger("iam.userservice.service.UserService");
+
+        int passed = 0;
+        for (int i = 0; i < 13; i++) {
+            if (underTest.decide(null, logger, Level.INFO, "Get user by id '{}'", new Object[]{i}, null) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        // 3 permits, then the 5th and 10th event beyond them
+        assertEquals(5, passed);
+        assertEquals(8, meterRegistry.get(LogRateLimitFilter.DROPPED_METRIC)
+                .tag("reason", "rate_limited").tag("logger", "iam.userservice.service").counter().count());
+    }
+
+    @Test
+    void decide_shouldNeverLimitWarningsOtherLoggersOrLevelChecks() {
+        Logger limited = loggerContext.getLogger("iam.userservice.service.UserService");
+        Logger other = loggerContext.getLogger("iam.userservice.servicex.Other");
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, underTest.decide(null, limited, Level.WARN, "Slow", null, null));
+            assertEquals(FilterReply.NEUTRAL, underTest.decide(null, limited, Level.INFO, null, null, null));
+            assertEquals(FilterReply.NEUTRAL, underTest.decide(null, other, Level.INFO, "Other", null, null));
+        }
+    }
+}
@@ -2,11 +2,13 @@ package iam.userservice.cucumber.config;
 
 import iam.userservice.TestUserServiceApplication;
 import io.cucumber.spring.CucumberContextConfiguration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.annotation.Bean;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.StringUtils;
 
 /**
  * Configuration class for Cucumber tests.
@@ -23,6 +25,14 @@ public class CucumberSpringConfiguration {
     @LocalServerPort
     private int port;
 
+    /*
+     Runs the scenarios against an already running build instead, e.g. the native binary. It must use the same database
+     as this context, since the steps seed it through the repository:
+     mvn verify -Dit.test=CucumberTest -Dcucumber.base-url=http://localhost:8081 -Dspring.datasource.url=...
+     */
+    @Value("${cucumber.base-url:}")
+    private String baseUrl;
+
     /**
      * Creates a WebTestClient bean for making HTTP requests to the API.
      * 
@@ -32,7 +42,7 @@ public class CucumberSpringConfiguration {
     public WebTestClient webTestClient() {
         return WebTestClient
             .bindToServer()
-            .baseUrl("http://localhost:" + port)
+            .baseUrl(StringUtils.hasText(baseUrl) ? baseUrl : "http://localhost:" + port)
             .build();
     }
 }
@@ -0,0 +1,121 @@
+package iam.userservice.repository;
+
+import iam.userservice.PostgresConfiguration;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the V4 migration, which makes emails case-insensitive, over rows written before it.
+ * Each test migrates its own schema up to V3, seeds it and then migrates it to the latest version.
+ */
+@DisplayName("Running email migration tests")
+class EmailMigrationRepositoryTest {
+
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(DockerImageName.parse(PostgresConfiguration.POSTGRES_IMAGE));
+
+    @BeforeAll
+    static void startDatabase() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        postgres.stop();
+    }
+
+    @Test
+    void migrate_shouldLowerCaseEmails() throws SQLException {
+        migrateToV3("lower_case_emails");
+        execute("lower_case_emails", """
+                INSERT INTO users (email, first_name, last_name, phone_number, version)
+                VALUES ('Bob@Example.com', 'Bob', 'Smith', '1234567890', 0),
+                       ('alice@example.com', 'Alice', 'Smith', '1234567890', 0)
+                """);
+
+        flyway("lower_case_emails", null).migrate();
+
+        assertEquals(List.of("alice@example.com", "bob@example.com"),
+                emails("lower_case_emails"));
+        SQLException duplicate = assertThrows(SQLException.class, () -> execute("lower_case_emails", """
+                INSERT INTO users (email, first_name, last_name, phone_number, version)
+                VALUES ('BOB@example.com', 'Bob', 'Jones', '1234567890', 0)
+                """));
+        assertTrue(duplicate.getMessage().contains("ux_users_email_lower"), duplicate.getMessage());
+    }
+
+    @Test
+    void migrate_shouldStopOnEmailsDifferingOnlyByCase() throws SQLException {
+        migrateToV3("case_duplicates");
+        execute("case_duplicates", """
+                INSERT INTO users (email, first_name, last_name, phone_number, version)
+                VALUES ('Bob@x.com', 'Bob', 'Smith', '1234567890', 0),
+                       ('bob@x.com', 'Bob', 'Smith', '1234567890', 0),
+                       ('alice@x.com', 'Alice', 'Smith', '1234567890', 0)
+                """);
+
+        FlywayException exception = assertThrows(FlywayException.class,
+                () -> flyway("case_duplicates", null).migrate());
+
+        assertTrue(exception.getMessage().contains("user ids: 1, 2"), exception.getMessage());
+        // Nothing was changed, the migration can run again once the users are merged
+        assertEquals(List.of("Bob@x.com", "alice@x.com", "bob@x.com"), emails("case_duplicates"));
+    }
+
+    private static void migrateToV3(String schema) {
+        flyway(schema, "3").migrate();
+    }
+
+    private static Flyway flyway(String schema, String target) {
+        var configuration = Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .schemas(schema)
+                .locations("classpath:db/migration");
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private static void execute(String schema, String sql) throws SQLException {
+        try (Connection connection = connect(schema); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static List<String> emails(String schema) throws SQLException {
+        try (Connection connection = connect(schema); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT email FROM users ORDER BY email COLLATE \"C\"")) {
+            List<String> emails = new ArrayList<>();
+            while (resultSet.next()) {
+                emails.add(resultSet.getString(1));
+            }
+            return emails;
+        }
+    }
+
+    private static Connection connect(String schema) throws SQLException {
+        Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword());
+        connection.setSchema(schema);
+        return connection;
+    }
+}
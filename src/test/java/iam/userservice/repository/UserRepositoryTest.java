@@ -3,6 +3,7 @@ package iam.userservice.repository;
 import iam.userservice.PostgresConfiguration;
 import iam.userservice.TestUserServiceApplication;
 import iam.userservice.entity.User;
+import iam.userservice.util.UserFilterCriteria;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,14 +12,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -68,6 +73,231 @@ class UserRepositoryTest {
         assertEquals(EMAIL, actualUser.getEmail());
     }
 
+    @Test
+    void findByEmail_shouldIgnoreCase() {
+        // Given
+        var user = getUser();
+        user.setEmail("Test@Example.com");
+        underTest.save(user);
+        // When
+        Optional<User> foundUser = underTest.findByEmail("TEST@example.COM");
+        // Then
+        assertTrue(foundUser.isPresent());
+        assertEquals(EMAIL, foundUser.get().getEmail());
+    }
+
+    @Test
+    void insertIfAbsent_shouldReturnInsertedUser() {
+        // When
+        Optional<User> inserted = underTest.insertIfAbsent(getUser());
+        // Then
+        assertTrue(inserted.isPresent());
+        assertNotNull(inserted.get().getId());
+        assertEquals(0L, inserted.get().getVersion());
+        assertEquals(EMAIL, inserted.get().getEmail());
+    }
+
+    @Test
+    void insertIfAbsent_shouldReturnEmptyWhenEmailIsTaken() {
+        // Given
+        underTest.save(getUser());
+        var duplicate = getUser();
+        duplicate.setFirstName("Jane");
+        // When
+        Optional<User> inserted = underTest.insertIfAbsent(duplicate);
+        // Then
+        assertTrue(inserted.isEmpty());
+    }
+
+    @Test
+    void upsertByEmail_shouldInsertThenSkipUnchangedThenUpdate() {
+        // When
+        UserUpsertResult inserted = underTest.upsertByEmail(getUser());
+        UserUpsertResult unchanged = underTest.upsertByEmail(getUser());
+        var changedUser = getUser();
+        changedUser.setPhoneNumber("0987654321");
+        UserUpsertResult updated = underTest.upsertByEmail(changedUser);
+        // Then
+        assertTrue(inserted.inserted() && inserted.changed());
+        assertTrue(!unchanged.inserted() && !unchanged.changed());
+        assertEquals(0L, unchanged.user().getVersion());
+        assertTrue(!updated.inserted() && updated.changed());
+        assertEquals(1L, updated.user().getVersion());
+        assertEquals(inserted.user().getId(), updated.user().getId());
+        assertEquals("0987654321", updated.user().getPhoneNumber());
+    }
+
+    @Test
+    void updateAllIfVersionMatches_shouldReportUpdatedConflictAndNotFound() {
+        // Given
+        User saved = underTest.insertIfAbsent(getUser()).orElseThrow();
+        var fresh = getUser();
+        fresh.setId(saved.getId());
+        fresh.setVersion(saved.getVersion());
+        fresh.setEmail("new.email@example.com");
+        var stale = getUser();
+        stale.setId(saved.getId());
+        stale.setVersion(saved.getVersion());
+        var missing = getUser();
+        missing.setId(-1L);
+        missing.setVersion(0L);
+        // When
+        List<UserBulkWriteResult> first = underTest.updateAllIfVersionMatches(List.of(fresh, missing));
+        List<UserBulkWriteResult> second = underTest.updateAllIfVersionMatches(List.of(stale));
+        // Then
+        UserBulkWriteResult updated = first.stream().filter(r -> r.id().equals(saved.getId())).findFirst().orElseThrow();
+        assertEquals(UserBulkWriteResult.Outcome.UPDATED, updated.outcome());
+        assertEquals(EMAIL, updated.previousEmail());
+        assertEquals("new.email@example.com", updated.user().getEmail());
+        assertEquals(1L, updated.user().getVersion());
+        assertTrue(first.stream().anyMatch(r -> r.id() == -1L && r.outcome() == UserBulkWriteResult.Outcome.NOT_FOUND));
+        assertEquals(UserBulkWriteResult.Outcome.CONFLICT, second.get(0).outcome());
+    }
+
+    @Test
+    void updateAllIfVersionMatches_shouldReportCollidingEmailAndUpdateTheRest() {
+        // Given
+        User first = underTest.insertIfAbsent(getUser()).orElseThrow();
+        User secondUser = getUser();
+        secondUser.setEmail("second@example.com");
+        User second = underTest.insertIfAbsent(secondUser).orElseThrow();
+        var renamed = getUser();
+        renamed.setId(first.getId());
+        renamed.setVersion(first.getVersion());
+        renamed.setEmail("new.email@example.com");
+        var colliding = getUser();
+        colliding.setId(second.getId());
+        colliding.setVersion(second.getVersion());
+        colliding.setEmail("TEST@example.com");
+        // When
+        List<UserBulkWriteResult> results = underTest.updateAllIfVersionMatches(List.of(renamed, colliding));
+        // Then
+        assertTrue(results.stream().anyMatch(r -> r.id().equals(second.getId())
+                && r.outcome() == UserBulkWriteResult.Outcome.EMAIL_TAKEN));
+        assertTrue(results.stream().anyMatch(r -> r.id().equals(first.getId())
+                && r.outcome() == UserBulkWriteResult.Outcome.UPDATED));
+        assertEquals("second@example.com", underTest.findById(second.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void updateChangedColumns_shouldReportEmailOfAnotherUser() {
+        // Given
+        underTest.insertIfAbsent(getUser()).orElseThrow();
+        User other = getUser();
+        other.setEmail("other@example.com");
+        User saved = underTest.insertIfAbsent(other).orElseThrow();
+        var changes = new User();
+        changes.setId(saved.getId());
+        changes.setEmail(EMAIL);
+        // When
+        UserBulkWriteResult result = underTest.updateChangedColumns(changes);
+        // Then
+        assertEquals(UserBulkWriteResult.Outcome.EMAIL_TAKEN, result.outcome());
+        assertEquals("other@example.com", underTest.findById(saved.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void updateProfilesIfNewer_shouldReportChangesDroppedInFavourOfDirectWrites() {
+        // Given
+        User saved = underTest.insertIfAbsent(getUser()).orElseThrow();
+        var direct = new User();
+        direct.setId(saved.getId());
+        direct.setPhoneNumber("0987654321");
+        underTest.updateChangedColumns(direct);
+        var cached = getUser();
+        cached.setId(saved.getId());
+        cached.setVersion(1L);
+        cached.setFirstName("Jane");
+        var unchanged = getUser();
+        unchanged.setId(saved.getId());
+        unchanged.setVersion(1L);
+        unchanged.setPhoneNumber("0987654321");
+        // When
+        List<Long> dropped = underTest.updateProfilesIfNewer(List.of(cached));
+        List<Long> alreadyStored = underTest.updateProfilesIfNewer(List.of(unchanged));
+        // Then
+        assertEquals(List.of(saved.getId()), dropped);
+        assertTrue(alreadyStored.isEmpty());
+        assertEquals(FIRST_NAME, underTest.findById(saved.getId()).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void deleteAllByIdReturning_shouldReportDeletedAndNotFound() {
+        // Given
+        User saved = underTest.insertIfAbsent(getUser()).orElseThrow();
+        // When
+        List<UserBulkWriteResult> results = underTest.deleteAllByIdReturning(List.of(saved.getId(), -1L));
+        // Then
+        assertEquals(2, results.size());
+        assertTrue(results.stream().anyMatch(r -> r.id().equals(saved.getId())
+                && r.outcome() == UserBulkWriteResult.Outcome.DELETED && EMAIL.equals(r.previousEmail())));
+        assertTrue(results.stream().anyMatch(r -> r.id() == -1L && r.outcome() == UserBulkWriteResult.Outcome.NOT_FOUND));
+        assertTrue(underTest.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void updateChangedColumns_shouldOnlyWriteGivenColumns() {
+        // Given
+        User saved = underTest.insertIfAbsent(getUser()).orElseThrow();
+        var changes = new User();
+        changes.setId(saved.getId());
+        changes.setPhoneNumber("0987654321");
+        // When
+        UserBulkWriteResult result = underTest.updateChangedColumns(changes);
+        changes.setVersion(0L);
+        UserBulkWriteResult stale = underTest.updateChangedColumns(changes);
+        // Then
+        assertEquals(UserBulkWriteResult.Outcome.UPDATED, result.outcome());
+        assertEquals("0987654321", result.user().getPhoneNumber());
+        assertEquals(FIRST_NAME, result.user().getFirstName());
+        assertEquals(EMAIL, result.user().getEmail());
+        assertEquals(1L, result.user().getVersion());
+        assertEquals(UserBulkWriteResult.Outcome.CONFLICT, stale.outcome());
+    }
+
+    @Test
+    void findContent_shouldReturnSortedPageWithoutCounting() {
+        // Given
+        for (String lastName : List.of("Cole", "Adams", "Brown")) {
+            User user = getUser();
+            user.setLastName(lastName);
+            user.setEmail(lastName.toLowerCase() + "@example.com");
+            underTest.save(user);
+        }
+        var criteria = new UserFilterCriteria();
+        criteria.setEmails(List.of("example.com"));
+        // When
+        List<User> firstPage = underTest.findContent(criteria, PageRequest.of(0, 2, Sort.by("lastName")));
+        List<User> secondPage = underTest.findContent(criteria, PageRequest.of(1, 2, Sort.by("lastName")));
+        // Then
+        assertEquals(List.of("Adams", "Brown"), firstPage.stream().map(User::getLastName).toList());
+        assertEquals(List.of("Cole"), secondPage.stream().map(User::getLastName).toList());
+        assertEquals(3, underTest.countMatching(criteria));
+    }
+
+    @Test
+    void findContent_shouldMatchLikesWithPaddedValuesAndEscapedWildcards() {
+        // Given
+        for (String lastName : List.of("Cole", "Adams", "Brown_Smith")) {
+            User user = getUser();
+            user.setLastName(lastName);
+            user.setEmail(lastName.toLowerCase() + "@example.com");
+            underTest.save(user);
+        }
+        var criteria = new UserFilterCriteria();
+        // Three values are padded to a query for four
+        criteria.setLastNames(List.of("COLE", "adam", "n_s"));
+        criteria.setSearchText(" example ");
+        var wildcard = new UserFilterCriteria();
+        wildcard.setLastNames(List.of("n_"));
+        // When
+        List<User> users = underTest.findContent(criteria, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "lastName")));
+        // Then
+        assertEquals(List.of("Cole", "Brown_Smith", "Adams"), users.stream().map(User::getLastName).toList());
+        assertEquals(users.size(), underTest.countMatching(criteria));
+        assertEquals(1, underTest.countMatching(wildcard));
+    }
+
     private @NotNull User getUser() {
         User user = new User();
         user.setFirstName(FIRST_NAME);
@@ -0,0 +1,173 @@
+package iam.userservice.repository;
+
+import iam.userservice.entity.User;
+import iam.userservice.repository.UserSearchQueryCompiler.SearchQuery;
+import iam.userservice.util.UserFilterCriteria;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.Query;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+import static org.springframework.data.domain.Sort.by;
+import static org.springframework.data.domain.Sort.unsorted;
+
+@DisplayName("Running userSearchQueryCompiler tests")
+class UserSearchQueryCompilerTest {
+
+    /* Statements Hibernate prepared, it runs against a mocked DataSource without any database */
+    private static final List<String> statements = new ArrayList<>();
+    private static SessionFactory sessionFactory;
+
+    private final UserSearchQueryCompiler underTest = new UserSearchQueryCompiler();
+
+    @BeforeAll
+    static void bootHibernate() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        Connection connection = mock(Connection.class, invocation -> {
+            if (invocation.getMethod().getName().equals("prepareStatement")) {
+                statements.add(invocation.getArgument(0));
+                return statement;
+            }
+            return RETURNS_DEFAULTS.answer(invocation);
+        });
+        when(dataSource.getConnection()).thenReturn(connection);
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.dialect", PostgreSQLDialect.class.getName())
+                .applySetting("hibernate.boot.allow_jdbc_metadata_access", false)
+                .applySetting("hibernate.hbm2ddl.auto", "none")
+                .applySetting("hibernate.connection.datasource", dataSource)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(User.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @AfterAll
+    static void closeHibernate() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void compile_shouldShareQueryBetweenValueCountsOfSameBucket() {
+        SearchQuery five = underTest.compile(criteria(5), by("id"));
+
+        assertSame(five, underTest.compile(criteria(8), by("id")));
+        assertNotSame(five, underTest.compile(criteria(9), by("id")));
+        assertNotSame(five, underTest.compile(criteria(5), by(DESC, "id")));
+        assertEquals(3, underTest.size());
+        assertTrue(five.select().contains(":firstNames7"), five.select());
+        assertTrue(five.select().endsWith(" order by u.id asc"), five.select());
+    }
+
+    @Test
+    void compile_shouldCompareExactIdsWithIn() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        criteria.setUserIds(List.of(1L, 2L, 3L));
+        criteria.setExactUserIdsFlag(true);
+
+        SearchQuery searchQuery = underTest.compile(criteria, unsorted());
+
+        assertEquals("select count(u) from User u where u.id in :userIds", searchQuery.count());
+        assertSame(searchQuery, underTest.compile(exactIds(40), unsorted()));
+    }
+
+    @Test
+    void compile_shouldAndFieldsAndOrTheirValues() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        criteria.setUserIds(List.of(1L));
+        criteria.setFirstNames(List.of("John"));
+        criteria.setLastNames(List.of("Doe", "Smith"));
+        criteria.setEmails(List.of("john.doe@example.com"));
+        criteria.setPhoneNumbers(List.of("1234567890"));
+
+        SearchQuery searchQuery = underTest.compile(criteria, unsorted());
+
+        assertEquals("select count(u) from User u where (lower(str(u.id)) like :userIds0 escape '\\')"
+                + " and (lower(u.firstName) like :firstNames0 escape '\\')"
+                + " and (lower(u.lastName) like :lastNames0 escape '\\' or lower(u.lastName) like :lastNames1 escape '\\')"
+                + " and (lower(u.email) like :emails0 escape '\\')"
+                + " and (lower(u.phoneNumber) like :phoneNumbers0 escape '\\')", searchQuery.count());
+    }
+
+    @Test
+    void compile_shouldMatchAllUsersWithoutCriteria() {
+        SearchQuery searchQuery = underTest.compile(null, unsorted());
+
+        assertEquals("select u from User u", searchQuery.select());
+        assertEquals("select count(u) from User u", searchQuery.count());
+        assertSame(searchQuery, underTest.compile(new UserFilterCriteria(), unsorted()));
+    }
+
+    @Test
+    void compile_shouldRejectUnknownSortProperty() {
+        assertThrows(IllegalArgumentException.class,
+                () -> underTest.compile(criteria(1), by("email; drop table users")));
+    }
+
+    @Test
+    void bind_shouldRenderEscapedLikesAndPadValues() {
+        UserFilterCriteria criteria = criteria(3);
+        criteria.setUserIds(List.of(12L));
+        criteria.setSearchText(" 50%_Off ");
+        SearchQuery searchQuery = underTest.compile(criteria, by(Sort.Order.asc("lastName").ignoreCase()));
+
+        try (Session session = sessionFactory.openSession()) {
+            Query<User> query = session.createQuery(searchQuery.select(), User.class);
+            searchQuery.bind(query, criteria);
+            query.getResultList();
+
+            assertEquals("%name2%", query.getParameterValue("firstNames3"));
+            assertEquals("%12%", query.getParameterValue("userIds0"));
+            assertEquals("%50\\%\\_off%", query.getParameterValue("searchText"));
+
+            Query<Long> count = session.createQuery(searchQuery.count(), Long.class);
+            searchQuery.bind(count, criteria);
+            assertEquals("%name0%", count.getParameterValue("firstNames0"));
+        }
+        String sql = statements.get(statements.size() - 1);
+        assertTrue(sql.contains("like ? escape '\\'"), sql);
+        assertTrue(sql.endsWith(" order by lower(u1_0.lastName)"), sql);
+    }
+
+    private static UserFilterCriteria criteria(int firstNames) {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        criteria.setFirstNames(LongStream.range(0, firstNames).mapToObj(i -> "Name" + i).toList());
+        return criteria;
+    }
+
+    private static UserFilterCriteria exactIds(int ids) {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        criteria.setUserIds(LongStream.rangeClosed(1, ids).boxed().toList());
+        criteria.setExactUserIdsFlag(true);
+        return criteria;
+    }
+}
@@ -0,0 +1,120 @@
+package iam.userservice.service;
+
+import iam.userservice.entity.User;
+import iam.userservice.exception.UserOptimisticLockException;
+import iam.userservice.repository.UserBulkWriteResult;
+import iam.userservice.repository.UserBulkWriteResult.Outcome;
+import iam.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+@DisplayName("Running optimisticLockRetry tests")
+@ExtendWith(MockitoExtension.class)
+class OptimisticLockRetryTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String ENDPOINT = "updateUser";
+
+    @Mock
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingTransactions transactions;
+    private OptimisticLockRetry underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactions = new RecordingTransactions();
+        underTest = new OptimisticLockRetry(userRepository, transactions, meterRegistry, 3, 1, 2);
+    }
+
+    @Test
+    void execute_shouldReapplyWriteWithReReadVersionAndCountRetries() {
+        // given
+        given(userRepository.findVersionById(USER_ID)).willReturn(Optional.of(4L), Optional.of(5L), Optional.of(6L));
+        List<Long> attemptedVersions = new ArrayList<>();
+        // when
+        UserBulkWriteResult result = underTest.execute(ENDPOINT, USER_ID, version -> {
+            assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+            attemptedVersions.add(version);
+            return version < 6L
+                    ? new UserBulkWriteResult(USER_ID, Outcome.CONFLICT, null, null)
+                    : new UserBulkWriteResult(USER_ID, Outcome.UPDATED, new User(), null);
+        });
+        // then
+        assertEquals(Outcome.UPDATED, result.outcome());
+        assertEquals(List.of(4L, 5L, 6L), attemptedVersions);
+        assertEquals(3, transactions.count);
+        assertEquals(2.0, meterRegistry.counter(OptimisticLockRetry.CONFLICTS_METRIC, "endpoint", ENDPOINT).count());
+        assertEquals(2.0, meterRegistry.counter(OptimisticLockRetry.RETRIES_METRIC, "endpoint", ENDPOINT).count());
+        assertEquals(0.0, meterRegistry.counter(OptimisticLockRetry.EXHAUSTED_METRIC, "endpoint", ENDPOINT).count());
+    }
+
+    @Test
+    void execute_shouldGiveUpAfterMaxAttempts() {
+        // given
+        given(userRepository.findVersionById(USER_ID)).willReturn(Optional.of(4L));
+        // when + then
+        assertThrows(UserOptimisticLockException.class, () -> underTest.execute(ENDPOINT, USER_ID,
+                version -> new UserBulkWriteResult(USER_ID, Outcome.CONFLICT, null, null)));
+        assertEquals(3.0, meterRegistry.counter(OptimisticLockRetry.CONFLICTS_METRIC, "endpoint", ENDPOINT).count());
+        assertEquals(1.0, meterRegistry.counter(OptimisticLockRetry.EXHAUSTED_METRIC, "endpoint", ENDPOINT).count());
+    }
+
+    @Test
+    void execute_shouldReportNotFoundWithoutWriting() {
+        // given
+        given(userRepository.findVersionById(USER_ID)).willReturn(Optional.empty());
+        // when
+        UserBulkWriteResult result = underTest.execute(ENDPOINT, USER_ID, version -> {
+            throw new AssertionError("Write must not run for a missing user");
+        });
+        // then
+        assertEquals(Outcome.NOT_FOUND, result.outcome());
+    }
+
+    @Test
+    void execute_shouldRefuseToRunInTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(IllegalStateException.class, () -> underTest.execute(ENDPOINT, USER_ID,
+                    version -> new UserBulkWriteResult(USER_ID, Outcome.UPDATED, new User(), null)));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(0, transactions.count);
+    }
+
+    /* Marks a transaction active while each callback runs, the backoff between attempts must be outside of them */
+    private static class RecordingTransactions implements TransactionOperations {
+        private int count;
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            count++;
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                return action.doInTransaction(null);
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package iam.userservice.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Running parallelSearchCount tests")
+class ParallelSearchCountTest {
+
+    @Test
+    void start_shouldNotRunCountWhenDisabled() {
+        ParallelSearchCount underTest = new ParallelSearchCount(false, 4, Duration.ofSeconds(1));
+
+        assertNull(underTest.start(() -> 1L));
+    }
+
+    @Test
+    void await_shouldReturnCount() {
+        ParallelSearchCount underTest = new ParallelSearchCount(true, 4, Duration.ofSeconds(10));
+        long start = System.nanoTime();
+
+        CompletableFuture<Long> count = underTest.start(() -> 42L);
+
+        assertEquals(OptionalLong.of(42), underTest.await(count, start));
+    }
+
+    @Test
+    void start_shouldLeaveCountToCallerBeyondMaxConcurrency() throws InterruptedException {
+        ParallelSearchCount underTest = new ParallelSearchCount(true, 1, Duration.ofSeconds(10));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        CompletableFuture<Long> first = underTest.start(() -> {
+            running.countDown();
+            awaitUninterruptibly(release);
+            return 1L;
+        });
+        running.await();
+
+        assertNull(underTest.start(() -> 2L));
+        release.countDown();
+        assertEquals(OptionalLong.of(1), underTest.await(first, start));
+    }
+
+    @Test
+    void await_shouldGiveUpAfterTimeout() {
+        ParallelSearchCount underTest = new ParallelSearchCount(true, 4, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        CompletableFuture<Long> count = underTest.start(() -> {
+            awaitUninterruptibly(release);
+            return 1L;
+        });
+        assertNotNull(count);
+
+        try {
+            assertTrue(underTest.await(count, start).isEmpty());
+            assertTrue(count.isCancelled());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void await_shouldTreatDatabaseTimeoutAsUnknownCount() {
+        ParallelSearchCount underTest = new ParallelSearchCount(true, 4, Duration.ofSeconds(10));
+        long start = System.nanoTime();
+
+        CompletableFuture<Long> count = underTest.start(() -> {
+            throw new QueryTimeoutException("canceling statement due to statement timeout");
+        });
+
+        assertTrue(underTest.await(count, start).isEmpty());
+    }
+
+    @Test
+    void await_shouldRethrowCountFailure() {
+        ParallelSearchCount underTest = new ParallelSearchCount(true, 4, Duration.ofSeconds(10));
+        long start = System.nanoTime();
+
+        CompletableFuture<Long> count = underTest.start(() -> {
+            throw new DataIntegrityViolationException("broken");
+        });
+
+        assertThrows(DataIntegrityViolationException.class, () -> underTest.await(count, start));
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package iam.userservice.service;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import iam.userservice.config.UserMapLoader;
+import iam.userservice.entity.User;
+import iam.userservice.mapper.UserDto;
+import iam.userservice.mapper.UserMapper;
+import iam.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static iam.userservice.service.UserService.USERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Running userCacheWarmer tests")
+class UserCacheWarmerTest {
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private static final UserRepository userRepository = mock(UserRepository.class);
+    private static final UserMapper userMapper = mock(UserMapper.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserCacheWarmer underTest;
+
+    @BeforeAll
+    @SuppressWarnings("unchecked")
+    static void startMember() {
+        Config config = new Config();
+        config.setClusterName("user-cache-warmer-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        ObjectProvider<UserRepository> repositoryProvider = mock(ObjectProvider.class);
+        when(repositoryProvider.getObject()).thenReturn(userRepository);
+        config.getMapConfig(USERS).getMapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(new UserMapLoader(repositoryProvider, userMapper, new SimpleMeterRegistry(), 2));
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void stopMember() {
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        hazelcastInstance.getMap(USERS).evictAll();
+        clearInvocations(userRepository);
+        underTest = new UserCacheWarmer(hazelcastInstance, userRepository, meterRegistry, 3, 2, Duration.ZERO);
+        when(userMapper.toDto(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            return new UserDto().id(user.getId());
+        });
+    }
+
+    @Test
+    void warmUp_shouldLoadMostRecentlyUpdatedUsersInBatches() {
+        when(userRepository.findRecentlyUpdatedIds(Limit.of(3))).thenReturn(List.of(3L, 1L, 2L));
+        givenUsersInDatabase();
+
+        assertEquals(3, underTest.warmUp(UserCacheWarmer.STARTUP));
+
+        IMap<Object, Object> usersCache = hazelcastInstance.getMap(USERS);
+        assertEquals(new UserDto().id(2L), usersCache.get(2L));
+        assertEquals(3, usersCache.size());
+        assertEquals(3, meterRegistry.get("user.cache.warmup.users").tag("trigger", "startup").counter().count());
+        assertEquals(1.0, meterRegistry.get("user.cache.warmup.progress").gauge().value());
+    }
+
+    @Test
+    void warmUp_shouldSkipUsersAlreadyCached() {
+        UserDto cached = new UserDto().id(1L).email("john.doe@example.com");
+        hazelcastInstance.getMap(USERS).set(1L, cached);
+        when(userRepository.findRecentlyUpdatedIds(Limit.of(3))).thenReturn(List.of(1L, 2L));
+        givenUsersInDatabase();
+
+        assertEquals(1, underTest.warmUp(UserCacheWarmer.MIGRATION));
+
+        assertEquals(cached, hazelcastInstance.getMap(USERS).get(1L));
+        verify(userRepository, never()).findAllById(argThat(ids -> ids.iterator().next().equals(1L)));
+    }
+
+    @Test
+    void warmUp_shouldBoundConcurrentLoaderQueries() {
+        UserCacheWarmer warmer = new UserCacheWarmer(hazelcastInstance, userRepository, meterRegistry, 40, 40, Duration.ZERO);
+        when(userRepository.findRecentlyUpdatedIds(Limit.of(40))).thenReturn(LongStream.rangeClosed(1, 40).boxed().toList());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(userRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                return invocation.<List<Long>>getArgument(0).stream().map(UserCacheWarmerTest::user).toList();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        assertEquals(40, warmer.warmUp(UserCacheWarmer.STARTUP));
+
+        assertEquals(40, hazelcastInstance.getMap(USERS).size());
+        assertTrue(maxRunning.get() <= 2, "Loader queries running at once: " + maxRunning.get());
+    }
+
+    private static void givenUsersInDatabase() {
+        when(userRepository.findAllById(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0)
+                .stream().map(UserCacheWarmerTest::user).toList());
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
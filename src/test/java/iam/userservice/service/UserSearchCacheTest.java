@@ -0,0 +1,148 @@
+package iam.userservice.service;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import iam.userservice.mapper.UserDto;
+import iam.userservice.util.UserFilterCriteria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+import static iam.userservice.service.UserService.USERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Running userSearchCache tests")
+class UserSearchCacheTest {
+
+    private static final PageRequest PAGEABLE = PageRequest.of(0, 10);
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserSearchCache underTest;
+
+    @BeforeAll
+    static void startMember() {
+        Config config = new Config();
+        config.setClusterName("user-search-cache-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void stopMember() {
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        hazelcastInstance.getMap(USERS).clear();
+        underTest = new UserSearchCache(hazelcastInstance, meterRegistry, DataSize.ofMegabytes(1), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void key_shouldIgnoreOrderAndDuplicatesOfFilterValues() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        criteria.setLastNames(List.of("Smith", "Doe", "Smith"));
+        criteria.setSearchText(" jo ");
+        UserFilterCriteria sameSearch = new UserFilterCriteria();
+        sameSearch.setLastNames(List.of("Doe", "Smith"));
+        sameSearch.setSearchText("jo");
+
+        assertEquals(UserSearchCache.Key.of(criteria, PAGEABLE), UserSearchCache.Key.of(sameSearch, PAGEABLE));
+        assertNotEquals(UserSearchCache.Key.of(criteria, PAGEABLE), UserSearchCache.Key.of(criteria, PAGEABLE.next()));
+    }
+
+    @Test
+    void get_shouldHydrateCachedIdsFromUsersMap() {
+        UserSearchCache.Key key = UserSearchCache.Key.of(new UserFilterCriteria(), PAGEABLE);
+        UserDto john = cachedUser(1L);
+        UserDto jane = cachedUser(2L);
+        underTest.put(key, underTest.generation(), page(john, jane));
+
+        Page<UserDto> result = underTest.get(key).orElseThrow();
+
+        assertEquals(List.of(john, jane), result.getContent());
+        assertEquals(2, result.getTotalElements());
+        assertEquals(1, gets("hit"));
+    }
+
+    @Test
+    void get_shouldMissWhenCachedUserNoLongerExists() {
+        UserSearchCache.Key key = UserSearchCache.Key.of(new UserFilterCriteria(), PAGEABLE);
+        // Not in the map, and without a map loader here it can't be read through either
+        underTest.put(key, underTest.generation(), page(cachedUser(1L), new UserDto().id(2L)));
+
+        assertTrue(underTest.get(key).isEmpty());
+        assertEquals(1, gets("stale"));
+    }
+
+    @Test
+    void invalidate_shouldMakeCachedPagesStale() {
+        UserSearchCache.Key key = UserSearchCache.Key.of(new UserFilterCriteria(), PAGEABLE);
+        underTest.put(key, underTest.generation(), page(cachedUser(1L)));
+
+        underTest.invalidate();
+
+        assertTrue(underTest.get(key).isEmpty());
+        assertEquals(1, gets("stale"));
+    }
+
+    @Test
+    void put_shouldIgnorePageReadBeforeLastInvalidation() {
+        UserSearchCache.Key key = UserSearchCache.Key.of(new UserFilterCriteria(), PAGEABLE);
+        long generation = underTest.generation();
+
+        underTest.invalidate();
+        underTest.put(key, generation, page(cachedUser(1L)));
+
+        assertTrue(underTest.get(key).isEmpty());
+        assertEquals(1, gets("miss"));
+    }
+
+    @Test
+    void invalidate_shouldWaitForTransactionCommit() {
+        long generation = underTest.generation();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            underTest.invalidate();
+            assertEquals(generation, underTest.generation());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(generation + 1, underTest.generation());
+    }
+
+    private UserDto cachedUser(long id) {
+        UserDto userDto = new UserDto().id(id);
+        hazelcastInstance.getMap(USERS).set(id, userDto);
+        return userDto;
+    }
+
+    private static Page<UserDto> page(UserDto... users) {
+        return new PageImpl<>(List.of(users), PAGEABLE, users.length);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get(UserSearchCache.GETS_METRIC).tag("result", result).counter().count();
+    }
+}
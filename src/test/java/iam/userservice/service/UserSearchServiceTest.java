@@ -3,24 +3,37 @@ package iam.userservice.service;
 import iam.userservice.entity.User;
 import iam.userservice.mapper.UserDto;
 import iam.userservice.mapper.UserMapper;
-import iam.userservice.repository.UserFilterSpecification;
 import iam.userservice.repository.UserRepository;
+import iam.userservice.slowquery.SlowQueryLog;
 import iam.userservice.util.Pagination;
+import iam.userservice.util.UnknownTotalPage;
 import iam.userservice.util.UserFilterCriteria;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class UserSearchServiceTest {
@@ -31,6 +44,20 @@ class UserSearchServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private UserSearchMetrics userSearchMetrics = new UserSearchMetrics(meterRegistry);
+
+    @Spy
+    private SlowQueryLog slowQueryLog = new SlowQueryLog(null, Long.MAX_VALUE, 10, 0);
+
+    @Mock
+    private UserSearchCache userSearchCache;
+
+    @Spy
+    private ParallelSearchCount parallelSearchCount = new ParallelSearchCount(false, 4, Duration.ofSeconds(2));
+
     @InjectMocks
     private UserSearchService userSearchService;
 
@@ -51,7 +78,7 @@ class UserSearchServiceTest {
         User user = new User();
         user.setId(1L);
         Page<User> userPage = new PageImpl<>(Collections.singletonList(user), pageable, 1);
-        when(userRepository.findAll(any(UserFilterSpecification.class), any(Pageable.class))).thenReturn(userPage);
+        when(userRepository.findContent(eq(criteria), any(Pageable.class))).thenReturn(userPage.getContent());
 
         UserDto userDto = new UserDto();
         userDto.setId(1L);
@@ -65,7 +92,8 @@ class UserSearchServiceTest {
 
         assertEquals(1, result.getTotalElements());
         assertEquals("John", result.getContent().get(0).getFirstName());
-        verify(userRepository, times(1)).findAll(any(UserFilterSpecification.class), any(Pageable.class));
+        verify(userRepository, times(1)).findContent(eq(criteria), any(Pageable.class));
+        verify(userRepository, never()).countMatching(any());
         verify(userMapper, times(1)).toDto(user);
     }
 
@@ -99,7 +127,7 @@ class UserSearchServiceTest {
         // Mock the repository to return a page with a single user
         // Use doReturn...when pattern to ensure the mock is set up correctly
         Page<User> userPage = new PageImpl<>(Collections.singletonList(user));
-        doReturn(userPage).when(userRepository).findAll(any(UserFilterSpecification.class), any(Pageable.class));
+        doReturn(userPage.getContent()).when(userRepository).findContent(eq(criteria), any(Pageable.class));
 
         // Mock the mapper to return the userDto
         when(userMapper.toDto(user)).thenReturn(userDto);
@@ -108,9 +136,12 @@ class UserSearchServiceTest {
         Page<UserDto> result = userSearchService.searchUsers(criteria, pagination);
 
         // Verify the results
-        assertEquals(1, result.getTotalElements());
+        assertEquals(1, result.getNumberOfElements());
+        // A short last page gives the total without counting
+        assertEquals(6, result.getTotalElements());
         assertEquals("Jane", result.getContent().get(0).getFirstName());
-        verify(userRepository, times(1)).findAll(any(UserFilterSpecification.class), any(Pageable.class));
+        verify(userRepository, times(1)).findContent(eq(criteria), any(Pageable.class));
+        verify(userRepository, never()).countMatching(any());
         verify(userMapper, times(1)).toDto(user);
     }
 
@@ -137,7 +168,7 @@ class UserSearchServiceTest {
         // Mock the repository to return a page with a single user
         // Use doReturn...when pattern to ensure the mock is set up correctly
         Page<User> userPage = new PageImpl<>(Collections.singletonList(user));
-        doReturn(userPage).when(userRepository).findAll(any(UserFilterSpecification.class), any(Pageable.class));
+        doReturn(userPage.getContent()).when(userRepository).findContent(eq(criteria), any(Pageable.class));
 
         // Mock the mapper to return the userDto
         when(userMapper.toDto(user)).thenReturn(userDto);
@@ -146,10 +177,11 @@ class UserSearchServiceTest {
         Page<UserDto> result = userSearchService.searchUsers(criteria, pageNo, pageSize, direction, sortBy);
 
         // Verify the results
-        assertEquals(1, result.getTotalElements());
+        assertEquals(1, result.getNumberOfElements());
         assertEquals("Alice", result.getContent().get(0).getFirstName());
         assertEquals("Johnson", result.getContent().get(0).getLastName());
-        verify(userRepository, times(1)).findAll(any(UserFilterSpecification.class), any(Pageable.class));
+        verify(userRepository, times(1)).findContent(eq(criteria), any(Pageable.class));
+        verify(userRepository, never()).countMatching(any());
         verify(userMapper, times(1)).toDto(user);
     }
 
@@ -180,10 +212,9 @@ class UserSearchServiceTest {
         userDto.setCreatedOn(OffsetDateTime.now());
 
         // Mock the repository to return a page with a single user
-        // The important part is that we're verifying it's called with a Specification
-        // that combines both UserFilterSpecification and UserSearchTextSpecification
+        // The search text is part of the criteria the repository compiles into its query
         Page<User> userPage = new PageImpl<>(Collections.singletonList(user));
-        doReturn(userPage).when(userRepository).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+        doReturn(userPage.getContent()).when(userRepository).findContent(eq(criteria), any(Pageable.class));
 
         // Mock the mapper to return the userDto
         when(userMapper.toDto(user)).thenReturn(userDto);
@@ -196,8 +227,175 @@ class UserSearchServiceTest {
         assertEquals("John", result.getContent().get(0).getFirstName());
         assertEquals("Smith", result.getContent().get(0).getLastName());
 
-        // Verify that the repository was called with a Specification
-        verify(userRepository, times(1)).findAll(any(org.springframework.data.jpa.domain.Specification.class), any(Pageable.class));
+        // Verify that the repository was called with the criteria
+        verify(userRepository, times(1)).findContent(eq(criteria), any(Pageable.class));
+        verify(userRepository, never()).countMatching(any());
         verify(userMapper, times(1)).toDto(user);
     }
+
+    @Test
+    void testSearchUsersRecordsMetricsPerCriteriaShape() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        criteria.setLastNames(List.of("Smith", "Doe"));
+        criteria.setFirstNames(List.of("John"));
+        criteria.setSearchText("jo");
+        Pagination pagination = Pagination.builder()
+                .pageNo(0)
+                .pageSize(2)
+                .sortBy("id")
+                .build();
+
+        User user = new User();
+        user.setId(4L);
+        doReturn(List.of(user, user)).when(userRepository).findContent(any(), any(Pageable.class));
+        doReturn(2L).when(userRepository).countMatching(any(), any(Duration.class));
+        when(userMapper.toDto(user)).thenReturn(new UserDto());
+
+        Page<UserDto> result = userSearchService.searchUsers(criteria, pagination);
+
+        assertEquals(2, result.getTotalElements());
+        // Tagged by the fields in use, never by the searched values
+        assertEquals(1, meterRegistry.get("user.search")
+                .tag("filters", "firstNames,lastNames").tag("search_text", "true").timer().count());
+        assertEquals(1, meterRegistry.get("user.search.count")
+                .tag("filters", "firstNames,lastNames").tag("search_text", "true").timer().count());
+        assertEquals(2, meterRegistry.get("user.search.rows")
+                .tag("filters", "firstNames,lastNames").summary().totalAmount());
+    }
+
+    @Test
+    void testSearchUsersSkipsCountForPartialFirstPage() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        Pagination pagination = Pagination.builder().pageNo(0).pageSize(10).sortBy("id").build();
+        User user = new User();
+        doReturn(List.of(user, user, user)).when(userRepository).findContent(eq(criteria), any(Pageable.class));
+        when(userMapper.toDto(user)).thenReturn(new UserDto());
+
+        Page<UserDto> result = userSearchService.searchUsers(criteria, pagination);
+
+        assertEquals(3, result.getTotalElements());
+        verify(userRepository, never()).countMatching(any());
+        verify(userRepository, never()).countMatching(any(), any(Duration.class));
+    }
+
+    @Test
+    void testSearchUsersCountsEmptyPageBeyondTheFirst() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        Pagination pagination = Pagination.builder().pageNo(3).pageSize(10).sortBy("id").build();
+        doReturn(List.of()).when(userRepository).findContent(eq(criteria), any(Pageable.class));
+        doReturn(12L).when(userRepository).countMatching(criteria, Duration.ofSeconds(2));
+
+        Page<UserDto> result = userSearchService.searchUsers(criteria, pagination);
+
+        assertEquals(12, result.getTotalElements());
+        verify(userRepository, times(1)).countMatching(criteria, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void testSearchUsersReturnsUnknownTotalWhenCountOnCallerTimesOut() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        Pagination pagination = Pagination.builder().pageNo(0).pageSize(2).sortBy("id").build();
+        User user = new User();
+        doReturn(List.of(user, user)).when(userRepository).findContent(eq(criteria), any(Pageable.class));
+        doThrow(new QueryTimeoutException("canceling statement due to statement timeout"))
+                .when(userRepository).countMatching(criteria, Duration.ofSeconds(2));
+        when(userMapper.toDto(user)).thenReturn(new UserDto());
+
+        Page<UserDto> result = userSearchService.searchUsers(criteria, pagination);
+
+        assertInstanceOf(UnknownTotalPage.class, result);
+        assertTrue(result.hasNext());
+        verify(userRepository, never()).countMatching(criteria);
+        assertEquals(1, meterRegistry.get("user.search.count.timeouts").tag("filters", "none").counter().count());
+        verify(userSearchCache, never()).put(any(), anyLong(), any());
+    }
+
+    @Test
+    void testSearchUsersWithoutFiltersIsTaggedAsNone() {
+        doReturn(List.of()).when(userRepository).findContent(any(), any(Pageable.class));
+
+        userSearchService.searchUsers(new UserFilterCriteria(), Pagination.builder().pageNo(0).pageSize(10).sortBy("id").build());
+
+        assertEquals(1, meterRegistry.get("user.search")
+                .tag("filters", "none").tag("search_text", "false").timer().count());
+    }
+
+    @Test
+    void testSearchUsersServesCachedPageWithoutQuerying() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        criteria.setLastNames(List.of("Smith", "Doe", "Smith"));
+        Pagination pagination = Pagination.builder().pageNo(0).pageSize(10).sortBy("id").build();
+        UserSearchCache.Key key = UserSearchCache.Key.of(criteria, pagination.toPageable());
+        Page<UserDto> cachedPage = new PageImpl<>(List.of(new UserDto()), pagination.toPageable(), 1);
+        when(userSearchCache.get(key)).thenReturn(Optional.of(cachedPage));
+
+        Page<UserDto> result = userSearchService.searchUsers(criteria, pagination);
+
+        assertEquals(cachedPage, result);
+        verify(userRepository, never()).findContent(any(), any());
+        verify(userRepository, never()).countMatching(any());
+    }
+
+    @Test
+    void testSearchUsersCachesPageUnderGenerationReadBeforeQuerying() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        Pagination pagination = Pagination.builder().pageNo(0).pageSize(10).sortBy("id").build();
+        when(userSearchCache.generation()).thenReturn(7L);
+        doReturn(List.of()).when(userRepository).findContent(any(), any(Pageable.class));
+
+        Page<UserDto> result = userSearchService.searchUsers(criteria, pagination);
+
+        verify(userSearchCache).put(UserSearchCache.Key.of(criteria, pagination.toPageable()), 7L, result);
+    }
+
+    @Test
+    void testSearchUsersCountsInParallelWhenEnabled() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        Pagination pagination = Pagination.builder().pageNo(0).pageSize(1).sortBy("id").build();
+        User user = new User();
+        doReturn(List.of(user)).when(userRepository).findContent(eq(criteria), any(Pageable.class));
+        doReturn(5L).when(userRepository).countMatching(criteria, Duration.ofSeconds(2));
+        when(userMapper.toDto(user)).thenReturn(new UserDto());
+
+        Page<UserDto> result = parallelSearchService(Duration.ofSeconds(2)).searchUsers(criteria, pagination);
+
+        assertEquals(5, result.getTotalElements());
+        verify(userRepository, never()).countMatching(criteria);
+        verify(userSearchCache).put(UserSearchCache.Key.of(criteria, pagination.toPageable()), 0L, result);
+        assertEquals(1, meterRegistry.get("user.search.count").tag("filters", "none").timer().count());
+    }
+
+    @Test
+    void testSearchUsersReturnsUnknownTotalWhenParallelCountTimesOut() {
+        UserFilterCriteria criteria = new UserFilterCriteria();
+        Pagination pagination = Pagination.builder().pageNo(2).pageSize(2).sortBy("id").build();
+        User user = new User();
+        doReturn(List.of(user, user)).when(userRepository).findContent(eq(criteria), any(Pageable.class));
+        CountDownLatch countReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            countReleased.await();
+            return 100L;
+        }).when(userRepository).countMatching(eq(criteria), any(Duration.class));
+        when(userMapper.toDto(user)).thenReturn(new UserDto());
+
+        Page<UserDto> result;
+        try {
+            result = parallelSearchService(Duration.ofMillis(50)).searchUsers(criteria, pagination);
+        } finally {
+            countReleased.countDown();
+        }
+
+        assertInstanceOf(UnknownTotalPage.class, result);
+        assertEquals(2, result.getNumberOfElements());
+        // A lower bound: the four users before this page, its two, and one more as the page is full
+        assertEquals(7, result.getTotalElements());
+        assertTrue(result.hasNext());
+        assertEquals(1, meterRegistry.get("user.search.count.timeouts").tag("filters", "none").counter().count());
+        verify(userSearchCache, never()).put(any(), anyLong(), any());
+    }
+
+    private UserSearchService parallelSearchService(Duration timeout) {
+        return new UserSearchService(userRepository, userMapper, userSearchMetrics, slowQueryLog, userSearchCache,
+                new ParallelSearchCount(true, 4, timeout));
+    }
 }
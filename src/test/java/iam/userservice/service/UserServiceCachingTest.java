@@ -0,0 +1,149 @@
+package iam.userservice.service;
+
+import com.hazelcast.config.ClasspathYamlConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.cache.HazelcastCacheManager;
+import iam.userservice.entity.User;
+import iam.userservice.mapper.UserDto;
+import iam.userservice.mapper.UserFilterMapper;
+import iam.userservice.mapper.UserMapper;
+import iam.userservice.mapper.UserRequestDto;
+import iam.userservice.repository.UserBulkWriteResult;
+import iam.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Optional;
+
+import static iam.userservice.service.UserService.USERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link UserService} behind its Spring cache annotations, on a Hazelcast 'users' map without a map store,
+ * so the keys of the annotations and of {@link UserCacheService} meet in the same cache.
+ */
+@DisplayName("Running userService caching tests")
+class UserServiceCachingTest {
+
+    private static final String EMAIL = "john.doe@example.com";
+    private static final String MIXED_CASE_EMAIL = "John.Doe@Example.com";
+
+    private static final UserRepository userRepository = mock(UserRepository.class);
+    private static final UserMapper userMapper = mock(UserMapper.class);
+    private static HazelcastInstance hazelcastInstance;
+
+    private AnnotationConfigApplicationContext context;
+    private UserService underTest;
+
+    @BeforeAll
+    static void startMember() {
+        Config config = new ClasspathYamlConfig("hazelcast.yaml");
+        config.setClusterName("user-service-caching-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.getMapConfig(USERS).getMapStoreConfig().setEnabled(false);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void stopMember() {
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        reset(userRepository, userMapper);
+        hazelcastInstance.getMap(USERS).evictAll();
+        when(userMapper.toDto(any(User.class))).thenAnswer(invocation -> toDto(invocation.getArgument(0)));
+        when(userMapper.toEntity(any(UserRequestDto.class))).thenAnswer(invocation -> {
+            UserRequestDto requestDto = invocation.getArgument(0);
+            return user(requestDto.getFirstName(), requestDto.getEmail(), 0L);
+        });
+
+        context = new AnnotationConfigApplicationContext();
+        context.register(CachingConfig.class);
+        context.registerBean(UserCacheService.class, () -> new UserCacheService(hazelcastInstance, false));
+        context.registerBean(UserService.class, () -> new UserService(userRepository, userMapper,
+                mock(UserValidationService.class), mock(RabbitTemplate.class), mock(UserSearchService.class),
+                mock(UserFilterMapper.class), context.getBean(UserCacheService.class),
+                new OptimisticLockRetry(userRepository, TransactionOperations.withoutTransaction(),
+                        new SimpleMeterRegistry(), 3, 0, 0),
+                mock(UserSearchCache.class)));
+        context.refresh();
+        underTest = context.getBean(UserService.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void getUserByEmail_shouldCacheUnderTheNormalizedEmail() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user("John", EMAIL, 0L)));
+
+        underTest.getUserByEmail(MIXED_CASE_EMAIL);
+        underTest.getUserByEmail(EMAIL);
+
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        assertEquals("John", ((UserDto) hazelcastInstance.getMap(USERS).get(EMAIL)).getFirstName());
+    }
+
+    @Test
+    void getUserByEmail_withMixedCaseEmail_shouldReadTheUpdatedUser() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user("John", EMAIL, 0L)));
+        assertEquals("John", underTest.getUserByEmail(MIXED_CASE_EMAIL).getFirstName());
+
+        User updated = user("Jane", EMAIL, 1L);
+        when(userRepository.findVersionById(1L)).thenReturn(Optional.of(0L));
+        when(userRepository.updateChangedColumns(any(User.class)))
+                .thenReturn(new UserBulkWriteResult(1L, UserBulkWriteResult.Outcome.UPDATED, updated, EMAIL));
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(updated));
+        underTest.updateUser(1L, new UserRequestDto("Jane", "Doe", MIXED_CASE_EMAIL, "1234567890"));
+
+        assertEquals("Jane", underTest.getUserByEmail(MIXED_CASE_EMAIL).getFirstName());
+    }
+
+    @EnableCaching
+    static class CachingConfig {
+
+        @Bean
+        HazelcastCacheManager cacheManager() {
+            return new HazelcastCacheManager(hazelcastInstance);
+        }
+    }
+
+    private static User user(String firstName, String email, long version) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(email);
+        user.setFirstName(firstName);
+        user.setLastName("Doe");
+        user.setPhoneNumber("1234567890");
+        user.setVersion(version);
+        return user;
+    }
+
+    private static UserDto toDto(User user) {
+        return new UserDto().id(user.getId()).email(user.getEmail()).firstName(user.getFirstName())
+                .lastName(user.getLastName()).phoneNumber(user.getPhoneNumber()).version(user.getVersion());
+    }
+}
@@ -1,18 +1,30 @@
 package iam.userservice.service;
 
+import iam.userservice.mapper.UserBulkDeleteDto;
+import iam.userservice.mapper.UserBulkResultDto;
+import iam.userservice.mapper.UserBulkResultDto.StatusEnum;
+import iam.userservice.mapper.UserBulkUpdateDto;
 import iam.userservice.mapper.UserDto;
 import iam.userservice.mapper.UserFilterDto;
 import iam.userservice.mapper.UserFilterMapper;
 import iam.userservice.mapper.UserMapper;
+import iam.userservice.mapper.UserPatchDto;
 import iam.userservice.mapper.UserRequestDto;
 import iam.userservice.entity.User;
 import iam.userservice.events.UserEmailUpdatedEvent;
 import iam.userservice.exception.EventPublishingException;
 import iam.userservice.exception.ResourceAlreadyExistsException;
 import iam.userservice.exception.ResourceNotFoundException;
+import iam.userservice.exception.UserOptimisticLockException;
+import iam.userservice.exception.UserValidationException;
+import iam.userservice.repository.UserBulkWriteResult;
+import iam.userservice.repository.UserBulkWriteResult.Outcome;
 import iam.userservice.repository.UserRepository;
+import iam.userservice.repository.UserUpsertResult;
 import iam.userservice.util.Pagination;
 import iam.userservice.util.UserFilterCriteria;
+import iam.userservice.validation.UserViolation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -31,10 +43,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -45,6 +59,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -71,6 +86,10 @@ class UserServiceTest {
     private UserSearchService userSearchService;
     @Mock
     private UserFilterMapper userFilterMapper;
+    @Mock
+    private UserCacheService userCacheService;
+    @Mock
+    private UserSearchCache userSearchCache;
     @Captor
     ArgumentCaptor<User> userArgumentCaptor;
     @Captor
@@ -90,6 +109,7 @@ class UserServiceTest {
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX");
     private static final String EXCHANGE_NAME = "user.exchange";
     private static final String ROUTING_KEY = "user.email.update";
+    private static final int RETRY_ATTEMPTS = 3;
 
     @BeforeEach
     void setUp() {
@@ -98,7 +118,10 @@ class UserServiceTest {
         // Set the exchange name and routing key using reflection
         ReflectionTestUtils.setField(underTest, "exchangeName", EXCHANGE_NAME);
         ReflectionTestUtils.setField(underTest, "routingKey", ROUTING_KEY);
-
+        // Real retry policy without backoff, so update tests exercise the retry loop against the mocked repository
+        ReflectionTestUtils.setField(underTest, "optimisticLockRetry",
+                new OptimisticLockRetry(userRepository, TransactionOperations.withoutTransaction(),
+                        new SimpleMeterRegistry(), RETRY_ATTEMPTS, 0, 0));
     }
 
     @Test
@@ -187,6 +210,18 @@ class UserServiceTest {
         assertNotNull(actualDto, "Expected a UserDto to be returned");
     }
 
+    @Test
+    void getUserByUserEmail_shouldLookUpNormalizedEmail() {
+        // given
+        given(userMapper.toDto(any())).willReturn(userDto);
+        given(userRepository.findByEmail(EMAIL)).willReturn(Optional.of(user));
+        // when
+        var actualDto = underTest.getUserByEmail("John.Doe@Example.com");
+        // then
+        verify(userRepository).findByEmail(EMAIL);
+        assertNotNull(actualDto, "Expected a UserDto to be returned");
+    }
+
     @Test
     void getUserByUserEmail_shouldThrowExceptionWhenUserNotFound() {
         // given
@@ -210,14 +245,15 @@ class UserServiceTest {
          userRequestDto = createUserRequestDto();
 
         given(userMapper.toEntity(userRequestDto)).willReturn(user);
-        given(userRepository.save(user)).willReturn(user);
+        given(userRepository.insertIfAbsent(user)).willReturn(Optional.of(user));
         // when
         underTest.createUser(userRequestDto);
         // then
         verify(userMapper).toEntity(userRequestDto);
         verify(userValidationService).validateUserRequestDto(userRequestDto);
-        verify(userRepository).save(userArgumentCaptor.capture());
+        verify(userRepository).insertIfAbsent(userArgumentCaptor.capture());
         verify(userMapper, times(1)).toDto(user);
+        verify(userSearchCache).invalidate();
 
         User capturedUser = userArgumentCaptor.getValue();
         assertEquals(user.getEmail(), capturedUser.getEmail());
@@ -226,19 +262,34 @@ class UserServiceTest {
         assertEquals(user.getPhoneNumber(), capturedUser.getPhoneNumber());
     }
 
+    @Test
+    void saveUser_shouldNormalizeEmailBeforeInsert() {
+        // given
+        userRequestDto = createUserRequestDto();
+        user.setEmail("John.Doe@Example.COM");
+
+        given(userMapper.toEntity(userRequestDto)).willReturn(user);
+        given(userRepository.insertIfAbsent(any(User.class))).willReturn(Optional.of(user));
+        // when
+        underTest.createUser(userRequestDto);
+        // then
+        verify(userRepository).insertIfAbsent(userArgumentCaptor.capture());
+        assertEquals(EMAIL, userArgumentCaptor.getValue().getEmail());
+    }
+
     @Test
     void saveBooking_shouldThrowExceptionWhenBookingAlreadyExists() {
         // given
          userRequestDto = createUserRequestDto();
 
-        given(userRepository.existsByEmailIgnoreCase(userRequestDto.getEmail())).willReturn(true);
+        given(userMapper.toEntity(userRequestDto)).willReturn(user);
+        given(userRepository.insertIfAbsent(user)).willReturn(Optional.empty());
         // when + then
         assertThrows(
                 ResourceAlreadyExistsException.class,
                 () -> underTest.createUser(userRequestDto),
                 "Should throw exception"
         );
-        verify(userMapper, never()).toEntity(userRequestDto);
         verify(userRepository, never()).save(any());
         verify(userMapper, never()).toDto(any());
         verify(userValidationService).validateUserRequestDto(any());
@@ -250,14 +301,18 @@ class UserServiceTest {
         userRequestDto = createUserRequestDto();
         // Set the same email to ensure no event is published
         userRequestDto.setEmail(user.getEmail()); // Make sure emails match
-        given(userRepository.findById(any())).willReturn(Optional.of(user));
+        givenMappedRequest();
+        given(userRepository.findVersionById(USER_ID)).willReturn(Optional.of(0L));
+        given(userRepository.updateChangedColumns(any(User.class)))
+                .willReturn(new UserBulkWriteResult(USER_ID, Outcome.UPDATED, user, EMAIL));
         given(userMapper.toDto(any())).willReturn(new UserDto());
 
         // when
         underTest.updateUser(USER_ID, userRequestDto);
 
         // then
-        verify(userRepository).save(userArgumentCaptor.capture());
+        verify(userRepository).updateChangedColumns(userArgumentCaptor.capture());
+        verify(userRepository, never()).findById(any());
         verify(rabbitTemplate, never()).convertAndSend(
                 eq("exchangeName"),
                 eq("routingKey"),
@@ -265,6 +320,8 @@ class UserServiceTest {
         );
 
         User capturedUser = userArgumentCaptor.getValue();
+        assertEquals(USER_ID, capturedUser.getId());
+        assertEquals(0L, capturedUser.getVersion());
         assertEquals(user.getEmail(), capturedUser.getEmail());
         assertEquals(user.getFirstName(), capturedUser.getFirstName());
         assertEquals(user.getLastName(), capturedUser.getLastName());
@@ -279,26 +336,29 @@ class UserServiceTest {
 
         // Set up user with ID
         user.setId(USER_ID);
-        user.setEmail(oldEmail);
+        user.setEmail(newEmail);
 
         // Set up request DTO
         userRequestDto = createUserRequestDto();
         userRequestDto.setEmail(newEmail);
 
-        given(userRepository.findById(USER_ID)).willReturn(Optional.of(user));
+        givenMappedRequest();
+        given(userRepository.findVersionById(USER_ID)).willReturn(Optional.of(0L));
+        given(userRepository.updateChangedColumns(any(User.class)))
+                .willReturn(new UserBulkWriteResult(USER_ID, Outcome.UPDATED, user, oldEmail));
         given(userMapper.toDto(any())).willReturn(new UserDto());
-        given(userRepository.save(any(User.class))).willReturn(user);
 
         // when
         underTest.updateUser(USER_ID, userRequestDto);
 
         // then
-        verify(userRepository).save(userArgumentCaptor.capture());
+        verify(userRepository).updateChangedColumns(userArgumentCaptor.capture());
         verify(rabbitTemplate).convertAndSend(
                 eq(EXCHANGE_NAME),
                 eq(ROUTING_KEY),
                 eventArgumentCaptor.capture()
         );
+        verify(userCacheService).evictAll(List.of(oldEmail, newEmail));
 
         // Verify user was updated correctly
         User capturedUser = userArgumentCaptor.getValue();
@@ -320,7 +380,9 @@ class UserServiceTest {
     @Test
     void updateUser_shouldThrowExceptionForNonexistentId() {
         // given
-        given(userRepository.findById(NON_EXISTENT_ID)).willReturn(Optional.empty());
+        userRequestDto = createUserRequestDto();
+        givenMappedRequest();
+        given(userRepository.findVersionById(NON_EXISTENT_ID)).willReturn(Optional.empty());
 
         // when + then
         assertThrows(ResourceNotFoundException.class,
@@ -332,7 +394,59 @@ class UserServiceTest {
                 eq(ROUTING_KEY),
                 any(UserEmailUpdatedEvent.class)
         );
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).updateChangedColumns(any(User.class));
+    }
+
+    @Test
+    void updateUser_shouldThrowConflictWhenEmailIsTaken() {
+        // given
+        userRequestDto = createUserRequestDto();
+        givenMappedRequest();
+        given(userRepository.findVersionById(USER_ID)).willReturn(Optional.of(0L));
+        given(userRepository.updateChangedColumns(any(User.class)))
+                .willReturn(new UserBulkWriteResult(USER_ID, Outcome.EMAIL_TAKEN, null, EMAIL));
+
+        // when + then
+        var exception = assertThrows(ResourceAlreadyExistsException.class,
+                () -> underTest.updateUser(USER_ID, userRequestDto));
+        assertEquals(UserService.EMAIL_TAKEN_MESSAGE, exception.getMessage());
+        verify(userRepository, times(1)).updateChangedColumns(any(User.class));
+        verify(userCacheService, never()).put(any());
+        verify(rabbitTemplate, never()).convertAndSend(eq(EXCHANGE_NAME), eq(ROUTING_KEY), any(UserEmailUpdatedEvent.class));
+    }
+
+    @Test
+    void updateUser_shouldRetryAgainstReReadVersionOnConflict() {
+        // given
+        userRequestDto = createUserRequestDto();
+        givenMappedRequest();
+        given(userRepository.findVersionById(USER_ID)).willReturn(Optional.of(0L), Optional.of(1L));
+        given(userRepository.updateChangedColumns(any(User.class))).willReturn(
+                new UserBulkWriteResult(USER_ID, Outcome.CONFLICT, null, EMAIL),
+                new UserBulkWriteResult(USER_ID, Outcome.UPDATED, user, EMAIL));
+        given(userMapper.toDto(user)).willReturn(userDto);
+
+        // when
+        var actual = underTest.updateUser(USER_ID, userRequestDto);
+
+        // then
+        assertEquals(userDto, actual);
+        verify(userRepository, times(2)).updateChangedColumns(userArgumentCaptor.capture());
+        assertEquals(1L, userArgumentCaptor.getValue().getVersion());
+    }
+
+    @Test
+    void updateUser_shouldThrowExceptionWhenRetriesAreExhausted() {
+        // given
+        userRequestDto = createUserRequestDto();
+        givenMappedRequest();
+        given(userRepository.findVersionById(USER_ID)).willReturn(Optional.of(0L));
+        given(userRepository.updateChangedColumns(any(User.class)))
+                .willReturn(new UserBulkWriteResult(USER_ID, Outcome.CONFLICT, null, EMAIL));
+
+        // when + then
+        assertThrows(UserOptimisticLockException.class, () -> underTest.updateUser(USER_ID, userRequestDto));
+        verify(userRepository, times(RETRY_ATTEMPTS)).updateChangedColumns(any(User.class));
     }
 
     @Test
@@ -340,11 +454,14 @@ class UserServiceTest {
         // given
         String oldEmail = "old@email.com";
         String newEmail = "new@email.com";
-        user.setEmail(oldEmail);
+        user.setEmail(newEmail);
         userRequestDto = createUserRequestDto();
         userRequestDto.setEmail(newEmail);
 
-        given(userRepository.findById(any())).willReturn(Optional.of(user));
+        givenMappedRequest();
+        given(userRepository.findVersionById(any())).willReturn(Optional.of(0L));
+        given(userRepository.updateChangedColumns(any(User.class)))
+                .willReturn(new UserBulkWriteResult(USER_ID, Outcome.UPDATED, user, oldEmail));
 
         doThrow(new AmqpException("Failed to publish"))
                 .when(rabbitTemplate)
@@ -362,7 +479,7 @@ class UserServiceTest {
         assertTrue(exception.getMessage().contains("Failed to publish email update event"));
 
         // Verify that the user was saved but event publishing failed
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).updateChangedColumns(any(User.class));
         verify(rabbitTemplate).convertAndSend(
                 eq(EXCHANGE_NAME),
                 eq(ROUTING_KEY),
@@ -373,24 +490,347 @@ class UserServiceTest {
 
 
     @Test
-    void deleteUser_shouldDeleteUser() {
+    void patchUser_shouldRefreshCacheWithoutEventWhenEmailUnchanged() {
         // given
-        given(userRepository.findById(any())).willReturn(Optional.of(user));
+        var patch = new UserPatchDto().phoneNumber("0987654321");
+        var changes = new User();
+        changes.setPhoneNumber("0987654321");
+        user.setId(USER_ID);
+        var patchedFields = new UserRequestDto(null, null, null, "0987654321");
+        given(userMapper.toEntity(patch)).willReturn(changes);
+        given(userMapper.toRequestDto(patch)).willReturn(patchedFields);
+        given(userRepository.updateChangedColumns(changes)).willReturn(new UserBulkWriteResult(USER_ID, Outcome.UPDATED, user, EMAIL));
+        given(userMapper.toDto(user)).willReturn(userDto);
+        // when
+        var actual = underTest.patchUser(USER_ID, patch);
+        // then
+        assertEquals(userDto, actual);
+        verify(userValidationService).validateUserPatch(patchedFields);
+        assertEquals(USER_ID, changes.getId());
+        verify(userRepository, never()).findById(any());
+        verify(userCacheService).put(userDto);
+        verify(rabbitTemplate, never()).convertAndSend(any(String.class), any(String.class), any(Object.class));
+    }
+
+    @Test
+    void patchUser_shouldPublishEventAndEvictOldEmailWhenEmailChanged() {
+        // given
+        var patch = new UserPatchDto().email("New.Email@example.com");
+        var changes = new User();
+        changes.setEmail("New.Email@example.com");
+        var updated = new User();
+        updated.setEmail("new.email@example.com");
+        given(userMapper.toEntity(patch)).willReturn(changes);
+        given(userRepository.updateChangedColumns(changes)).willReturn(new UserBulkWriteResult(USER_ID, Outcome.UPDATED, updated, EMAIL));
+        given(userMapper.toDto(updated)).willReturn(userDto);
+        // when
+        underTest.patchUser(USER_ID, patch);
+        // then
+        assertEquals("new.email@example.com", changes.getEmail());
+        verify(userCacheService).evictAll(List.of(EMAIL));
+        verify(rabbitTemplate).convertAndSend(eq(EXCHANGE_NAME), eq(ROUTING_KEY), any(UserEmailUpdatedEvent.class));
+    }
+
+    @Test
+    void patchUser_shouldThrowExceptionOnVersionConflict() {
+        // given
+        var patch = new UserPatchDto().firstName("Jane").version(3L);
+        var changes = new User();
+        changes.setFirstName("Jane");
+        changes.setVersion(3L);
+        given(userMapper.toEntity(patch)).willReturn(changes);
+        given(userRepository.updateChangedColumns(changes)).willReturn(new UserBulkWriteResult(USER_ID, Outcome.CONFLICT, null, EMAIL));
+        // when + then
+        assertThrows(UserOptimisticLockException.class, () -> underTest.patchUser(USER_ID, patch));
+        verify(userCacheService, never()).put(any());
+    }
+
+    @Test
+    void patchUser_shouldThrowConflictWhenEmailIsTaken() {
+        // given
+        var patch = new UserPatchDto().email("taken@example.com").version(3L);
+        var changes = new User();
+        changes.setEmail("taken@example.com");
+        changes.setVersion(3L);
+        given(userMapper.toEntity(patch)).willReturn(changes);
+        given(userRepository.updateChangedColumns(changes)).willReturn(new UserBulkWriteResult(USER_ID, Outcome.EMAIL_TAKEN, null, EMAIL));
+        // when + then
+        assertThrows(ResourceAlreadyExistsException.class, () -> underTest.patchUser(USER_ID, patch));
+        verify(userCacheService, never()).put(any());
+        verify(rabbitTemplate, never()).convertAndSend(eq(EXCHANGE_NAME), eq(ROUTING_KEY), any(UserEmailUpdatedEvent.class));
+    }
+
+    @Test
+    void patchUser_withWriteBehind_shouldPatchCacheOnly() {
+        // given
+        var patch = new UserPatchDto().firstName("Jane");
+        var changes = new User();
+        changes.setFirstName("Jane");
+        given(userMapper.toEntity(patch)).willReturn(changes);
+        given(userCacheService.isWriteBehind()).willReturn(true);
+        given(userCacheService.patchProfile(changes)).willReturn(Optional.of(new UserCacheService.PatchResult(userDto, false)));
+        // when
+        var actual = underTest.patchUser(USER_ID, patch);
+        // then
+        assertEquals(userDto, actual);
+        verify(userRepository, never()).updateChangedColumns(any());
+        verify(userSearchCache).invalidate();
+    }
+
+    @Test
+    void patchUser_withWriteBehind_shouldStillWriteEmailChangesToDatabase() {
+        // given
+        var patch = new UserPatchDto().email("new.email@example.com");
+        var changes = new User();
+        changes.setEmail("new.email@example.com");
+        given(userMapper.toEntity(patch)).willReturn(changes);
+        given(userRepository.updateChangedColumns(changes)).willReturn(new UserBulkWriteResult(USER_ID, Outcome.UPDATED, user, EMAIL));
+        // when
+        underTest.patchUser(USER_ID, patch);
+        // then
+        verify(userCacheService, never()).patchProfile(any());
+    }
+
+    @Test
+    void patchUser_shouldRejectEmptyPatch() {
+        // given
+        var patch = new UserPatchDto().version(3L);
+        given(userMapper.toEntity(patch)).willReturn(new User());
+        // when + then
+        assertThrows(IllegalArgumentException.class, () -> underTest.patchUser(USER_ID, patch));
+        verify(userRepository, never()).updateChangedColumns(any());
+    }
+
+    @Test
+    void upsertUserByEmail_shouldRefreshCacheWhenUserChanged() {
+        // given
+        userRequestDto = createUserRequestDto();
+        given(userMapper.toEntity(userRequestDto)).willReturn(user);
+        given(userRepository.upsertByEmail(user)).willReturn(new UserUpsertResult(user, false, true));
+        given(userMapper.toDto(user)).willReturn(userDto);
+        // when
+        var actual = underTest.upsertUserByEmail("John.Doe@example.com", userRequestDto);
+        // then
+        assertEquals(userDto, actual);
+        verify(userValidationService).validateUserRequestDto(userRequestDto);
+        verify(userCacheService).put(userDto);
+        verify(rabbitTemplate, never()).convertAndSend(any(String.class), any(String.class), any(Object.class));
+    }
+
+    @Test
+    void upsertUserByEmail_shouldNotTouchCacheWhenUserUnchanged() {
+        // given
+        userRequestDto = createUserRequestDto();
+        given(userMapper.toEntity(userRequestDto)).willReturn(user);
+        given(userRepository.upsertByEmail(user)).willReturn(new UserUpsertResult(user, false, false));
+        given(userMapper.toDto(user)).willReturn(userDto);
+        // when
+        underTest.upsertUserByEmail(EMAIL, userRequestDto);
+        // then
+        verify(userCacheService, never()).put(any());
+        verify(userSearchCache, never()).invalidate();
+    }
+
+    @Test
+    void upsertUserByEmail_shouldRejectMismatchedEmails() {
+        // given
+        userRequestDto = createUserRequestDto();
+        // when + then
+        assertThrows(IllegalArgumentException.class,
+                () -> underTest.upsertUserByEmail("someone.else@example.com", userRequestDto));
+        verify(userRepository, never()).upsertByEmail(any());
+    }
+
+    @Test
+    void upsertUsersByEmail_shouldCollapseDuplicateEmailsAndKeepRequestOrder() {
+        // given
+        var first = new UserRequestDto("Jane", "Smith", "jane@example.com", PHONE_NUMBER);
+        var duplicate = new UserRequestDto("Janet", "Smith", "JANE@example.com", PHONE_NUMBER);
+        var second = createUserRequestDto();
+        var jane = new User();
+        jane.setEmail("jane@example.com");
+        var janet = new User();
+        janet.setEmail("JANE@example.com");
+        janet.setFirstName("Janet");
+        var janeDto = new UserDto().email("jane@example.com");
+
+        given(userMapper.toEntity(first)).willReturn(jane);
+        given(userMapper.toEntity(duplicate)).willReturn(janet);
+        given(userMapper.toEntity(second)).willReturn(user);
+        given(userRepository.upsertAllByEmail(any())).willReturn(List.of(
+                new UserUpsertResult(user, true, true),
+                new UserUpsertResult(janet, false, false)));
+        given(userMapper.toDto(user)).willReturn(userDto);
+        given(userMapper.toDto(janet)).willReturn(janeDto);
+        // when
+        var actual = underTest.upsertUsersByEmail(List.of(first, duplicate, second));
+        // then
+        ArgumentCaptor<List<User>> usersCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).upsertAllByEmail(usersCaptor.capture());
+        assertEquals(2, usersCaptor.getValue().size());
+        assertEquals("jane@example.com", usersCaptor.getValue().get(0).getEmail());
+        assertEquals("Janet", usersCaptor.getValue().get(0).getFirstName());
+        assertEquals(List.of(janeDto, userDto), actual);
+        verify(userCacheService).put(userDto);
+        verify(userCacheService, never()).put(janeDto);
+    }
+
+    @Test
+    void bulkUpdateUsers_shouldEvictAffectedKeysAndPublishOnlyChangedEmails() {
+        // given
+        var renamed = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, "New.Email@example.com", PHONE_NUMBER, USER_ID, 0L);
+        var stale = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, "stale@example.com", PHONE_NUMBER, 2L, 0L);
+        var missing = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, "missing@example.com", PHONE_NUMBER, NON_EXISTENT_ID, 0L);
+        var updated = new User();
+        updated.setId(USER_ID);
+        updated.setEmail("new.email@example.com");
+        given(userMapper.toEntity(any(UserBulkUpdateDto.class))).willAnswer(invocation -> {
+            UserBulkUpdateDto dto = invocation.getArgument(0);
+            var entity = new User();
+            entity.setId(dto.getId());
+            entity.setEmail(dto.getEmail());
+            return entity;
+        });
+        given(userRepository.updateAllIfVersionMatches(any())).willReturn(List.of(
+                new UserBulkWriteResult(NON_EXISTENT_ID, Outcome.NOT_FOUND, null, null),
+                new UserBulkWriteResult(USER_ID, Outcome.UPDATED, updated, EMAIL),
+                new UserBulkWriteResult(2L, Outcome.CONFLICT, null, "stale@example.com")));
+        given(userMapper.toDto(updated)).willReturn(userDto);
+        // when
+        var actual = underTest.bulkUpdateUsers(List.of(renamed, stale, missing));
+        // then
+        verify(userValidationService).validateUserRequestDtos(argThat(dtos -> dtos.size() == 3));
+        ArgumentCaptor<List<User>> usersCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).updateAllIfVersionMatches(usersCaptor.capture());
+        assertEquals("new.email@example.com", usersCaptor.getValue().get(0).getEmail());
+        assertEquals(List.of(USER_ID, 2L, NON_EXISTENT_ID), actual.stream().map(UserBulkResultDto::getId).toList());
+        assertEquals(List.of(StatusEnum.UPDATED, StatusEnum.CONFLICT, StatusEnum.NOT_FOUND),
+                actual.stream().map(UserBulkResultDto::getStatus).toList());
+        assertEquals(userDto, actual.get(0).getUser());
+        verify(userCacheService).evictAll(List.of(USER_ID, EMAIL, "new.email@example.com"));
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(EXCHANGE_NAME), eq(ROUTING_KEY), any(UserEmailUpdatedEvent.class));
+    }
+
+    @Test
+    void bulkUpdateUsers_shouldRejectDuplicateIds() {
+        // given
+        var first = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, EMAIL, PHONE_NUMBER, USER_ID, 0L);
+        var second = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, EMAIL, PHONE_NUMBER, USER_ID, 1L);
+        // when + then
+        assertThrows(IllegalArgumentException.class, () -> underTest.bulkUpdateUsers(List.of(first, second)));
+        verify(userRepository, never()).updateAllIfVersionMatches(any());
+    }
+
+    @Test
+    void bulkUpdateUsers_shouldReportCollidingEmailWithoutFailingTheBatch() {
+        // given
+        var renamed = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, "new.email@example.com", PHONE_NUMBER, USER_ID, 0L);
+        var colliding = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, "taken@example.com", PHONE_NUMBER, 2L, 0L);
+        var updated = new User();
+        updated.setId(USER_ID);
+        updated.setEmail("new.email@example.com");
+        given(userMapper.toEntity(any(UserBulkUpdateDto.class))).willAnswer(invocation -> {
+            UserBulkUpdateDto dto = invocation.getArgument(0);
+            var entity = new User();
+            entity.setId(dto.getId());
+            entity.setEmail(dto.getEmail());
+            return entity;
+        });
+        given(userRepository.updateAllIfVersionMatches(any())).willReturn(List.of(
+                new UserBulkWriteResult(USER_ID, Outcome.UPDATED, updated, EMAIL),
+                new UserBulkWriteResult(2L, Outcome.EMAIL_TAKEN, null, "second@example.com")));
+        given(userMapper.toDto(updated)).willReturn(userDto);
+        // when
+        var actual = underTest.bulkUpdateUsers(List.of(renamed, colliding));
+        // then
+        assertEquals(List.of(StatusEnum.UPDATED, StatusEnum.EMAIL_TAKEN),
+                actual.stream().map(UserBulkResultDto::getStatus).toList());
+        assertNull(actual.get(1).getUser());
+        verify(userCacheService).evictAll(List.of(USER_ID, EMAIL, "new.email@example.com"));
+        verify(rabbitTemplate, times(1)).convertAndSend(eq(EXCHANGE_NAME), eq(ROUTING_KEY), any(UserEmailUpdatedEvent.class));
+    }
+
+    @Test
+    void bulkUpdateUsers_shouldRejectDuplicateEmails() {
+        // given
+        var first = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, "jane@example.com", PHONE_NUMBER, USER_ID, 0L);
+        var second = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, "JANE@example.com", PHONE_NUMBER, 2L, 0L);
+        given(userMapper.toEntity(any(UserBulkUpdateDto.class))).willAnswer(invocation -> {
+            UserBulkUpdateDto dto = invocation.getArgument(0);
+            var entity = new User();
+            entity.setId(dto.getId());
+            entity.setEmail(dto.getEmail());
+            return entity;
+        });
+        // when + then
+        assertThrows(IllegalArgumentException.class, () -> underTest.bulkUpdateUsers(List.of(first, second)));
+        verify(userRepository, never()).updateAllIfVersionMatches(any());
+    }
+
+    @Test
+    void bulkUpdateUsers_shouldRejectMissingIdsAndVersions() {
+        // given
+        var missingId = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, EMAIL, PHONE_NUMBER, null, 0L);
+        var missingVersion = new UserBulkUpdateDto(FIRST_NAME, LAST_NAME, "second@example.com", PHONE_NUMBER, 2L, null);
+        // when
+        var exception = assertThrows(UserValidationException.class,
+                () -> underTest.bulkUpdateUsers(List.of(missingId, missingVersion)));
+        // then
+        assertEquals(List.of(new UserViolation(0, "id", UserService.MUST_NOT_BE_NULL_MESSAGE),
+                new UserViolation(1, "version", UserService.MUST_NOT_BE_NULL_MESSAGE)), exception.getViolations());
+        verify(userRepository, never()).updateAllIfVersionMatches(any());
+    }
+
+    @Test
+    void bulkDeleteUsers_shouldEvictDeletedKeysAndReportMissingIds() {
+        // given
+        given(userRepository.deleteAllByIdReturning(List.of(USER_ID, NON_EXISTENT_ID))).willReturn(List.of(
+                new UserBulkWriteResult(NON_EXISTENT_ID, Outcome.NOT_FOUND, null, null),
+                new UserBulkWriteResult(USER_ID, Outcome.DELETED, null, EMAIL)));
+        // when
+        var actual = underTest.bulkDeleteUsers(new UserBulkDeleteDto(List.of(USER_ID, NON_EXISTENT_ID, USER_ID)));
+        // then
+        assertEquals(List.of(StatusEnum.DELETED, StatusEnum.NOT_FOUND),
+                actual.stream().map(UserBulkResultDto::getStatus).toList());
+        verify(userCacheService).evictAll(List.of(USER_ID, EMAIL));
+    }
+
+    @Test
+    void deleteUser_shouldDeleteUserAndEvictItsIdAndEmail() {
+        // given
+        given(userRepository.deleteAllByIdReturning(List.of(USER_ID)))
+                .willReturn(List.of(new UserBulkWriteResult(USER_ID, Outcome.DELETED, null, EMAIL)));
         // when
         underTest.deleteUser(USER_ID);
         // then
-        verify(userRepository).deleteById(USER_ID);
+        verify(userRepository, never()).findById(any());
+        verify(userCacheService).evictAll(List.of(USER_ID, EMAIL));
+        verify(userSearchCache).invalidate();
     }
 
     @Test
     void deleteUser_shouldThrowExceptionForNonexistentId() {
         // given
-        given(userRepository.findById(NON_EXISTENT_ID)).willThrow(ResourceNotFoundException.class);
+        given(userRepository.deleteAllByIdReturning(List.of(NON_EXISTENT_ID)))
+                .willReturn(List.of(new UserBulkWriteResult(NON_EXISTENT_ID, Outcome.NOT_FOUND, null, null)));
         // when + then
         assertThrows(ResourceNotFoundException.class,
                 () -> underTest.deleteUser(NON_EXISTENT_ID),
                 "Should throw an exception");
-        verify(userRepository, never()).deleteById(NON_EXISTENT_ID);
+        verify(userCacheService, never()).evictAll(any());
+        verify(userSearchCache, never()).invalidate();
+    }
+
+    private void givenMappedRequest() {
+        given(userMapper.toEntity(any(UserRequestDto.class))).willAnswer(invocation -> {
+            UserRequestDto requestDto = invocation.getArgument(0);
+            var entity = new User();
+            entity.setFirstName(requestDto.getFirstName());
+            entity.setLastName(requestDto.getLastName());
+            entity.setEmail(requestDto.getEmail());
+            entity.setPhoneNumber(requestDto.getPhoneNumber());
+            return entity;
+        });
     }
 
     private User createDefaultUser() {
@@ -0,0 +1,136 @@
+package iam.userservice.slowquery;
+
+import io.micrometer.core.instrument.Tags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Running slowQueryLog tests")
+class SlowQueryLogTest {
+
+    private static final Tags SHAPE = Tags.of("filters", "firstNames", "search_text", "true");
+    private static final String SEARCH_SQL = """
+            select u1_0.id,u1_0.email from users u1_0
+            where (u1_0.first_name like ? escape '\\' or u1_0.first_name like ? escape '\\')
+              and u1_0.id in (?, ?, ?)
+            offset ? rows fetch first ? rows only""";
+
+    private final DataSource target = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+
+    @AfterEach
+    void tearDown() {
+        StatementCapture.end();
+    }
+
+    @Test
+    void record_shouldCaptureShapeOfSlowSearchWithoutValues() throws SQLException {
+        // given
+        givenWrappedDataSource();
+        SlowQueryLog underTest = new SlowQueryLog(null, 0, 10, 0);
+        // when
+        try (SlowQueryLog.Recording recording = underTest.record(SHAPE)) {
+            executeSearch();
+            recording.rows(2);
+            recording.total(42);
+        }
+        // then
+        SlowQuery captured = underTest.captures().get(0);
+        assertEquals("firstNames", captured.filters());
+        assertTrue(captured.searchText());
+        assertEquals(2, captured.rows());
+        assertEquals(42, captured.total());
+        assertNull(captured.plan());
+        SlowQuery.Statement capturedStatement = captured.statements().get(0);
+        assertEquals("select u1_0.id,u1_0.email from users u1_0 where (u1_0.first_name like ? escape '\\' or ...) "
+                + "and u1_0.id in (?...) offset ? rows fetch first ? rows only", capturedStatement.sql());
+        assertEquals(List.of("string x2", "long x3", "int x2"), capturedStatement.binds());
+        assertFalse(captured.toString().contains("jo%"), "Bound values must not be kept");
+    }
+
+    @Test
+    void record_shouldNotCaptureSearchesBelowThreshold() throws SQLException {
+        // given
+        givenWrappedDataSource();
+        SlowQueryLog underTest = new SlowQueryLog(null, 60_000, 10, 0);
+        // when
+        try (SlowQueryLog.Recording ignored = underTest.record(SHAPE)) {
+            executeSearch();
+        }
+        // then
+        assertTrue(underTest.captures().isEmpty());
+    }
+
+    @Test
+    void captures_shouldKeepOnlyTheMostRecentUpToCapacity() {
+        // given
+        SlowQueryLog underTest = new SlowQueryLog(null, 0, 2, 0);
+        // when
+        for (int rows = 1; rows <= 3; rows++) {
+            try (SlowQueryLog.Recording recording = underTest.record(SHAPE)) {
+                recording.rows(rows);
+            }
+        }
+        // then
+        assertEquals(List.of(3, 2), underTest.captures().stream().map(SlowQuery::rows).toList());
+    }
+
+    @Test
+    void wrap_shouldOnlyCaptureStatementsWhileRecording() throws SQLException {
+        // given
+        givenWrappedDataSource();
+        DataSource wrapped = StatementCapture.wrap(target);
+        // when
+        Connection unrecorded = wrapped.getConnection();
+        PreparedStatement prepared = unrecorded.prepareStatement("select 1");
+        // then, queries outside of recordings run on the pool's own connections and statements
+        assertSame(connection, unrecorded);
+        assertSame(statement, prepared);
+        assertSame(wrapped, StatementCapture.wrap(wrapped));
+        assertSame(target, ((DelegatingDataSource) wrapped).getTargetDataSource());
+    }
+
+    @Test
+    void bindShape_shouldCollapseRunsOfTheSameType() {
+        assertEquals(List.of("string x2", "long", "string"), SlowQueryLog.bindShape(List.of("string", "string", "long", "string")));
+        assertEquals(List.of(), SlowQueryLog.bindShape(List.of()));
+    }
+
+    private void givenWrappedDataSource() throws SQLException {
+        given(target.getConnection()).willReturn(connection);
+        given(connection.prepareStatement(anyString())).willReturn(statement);
+    }
+
+    private void executeSearch() throws SQLException {
+        Connection wrappedConnection = StatementCapture.wrap(target).getConnection();
+        PreparedStatement prepared = wrappedConnection.prepareStatement(SEARCH_SQL);
+        prepared.setString(1, "jo%");
+        prepared.setString(2, "ja%");
+        prepared.setLong(3, 1L);
+        prepared.setLong(4, 2L);
+        prepared.setLong(5, 3L);
+        prepared.setInt(6, 0);
+        prepared.setInt(7, 10);
+        prepared.setFetchSize(10);
+        prepared.executeQuery();
+        verify(statement).executeQuery();
+    }
+}
@@ -0,0 +1,65 @@
+package iam.userservice.util;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Label("Running emailSyntax tests")
+class EmailSyntaxTest {
+
+    /* The pattern UserValidationService matched emails against before EmailSyntax, kept as the reference behaviour */
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
+
+    @Property(tries = 5000)
+    void isValid_shouldMatchRegexForEmailLikeStrings(@ForAll("emailLikeStrings") String email) {
+        assertEquals(EMAIL_PATTERN.matcher(email).matches(), EmailSyntax.isValid(email));
+    }
+
+    @Property(tries = 5000)
+    void isValid_shouldMatchRegexForShuffledCharacters(@ForAll("emailCharacters") String email) {
+        assertEquals(EMAIL_PATTERN.matcher(email).matches(), EmailSyntax.isValid(email));
+    }
+
+    @Property
+    void isValid_shouldMatchRegexForAnyString(@ForAll String email) {
+        assertEquals(EMAIL_PATTERN.matcher(email).matches(), EmailSyntax.isValid(email));
+    }
+
+    @Example
+    void isValid_shouldAcceptAndRejectKnownEmails() {
+        assertTrue(EmailSyntax.isValid("john.doe@example.com"));
+        assertTrue(EmailSyntax.isValid("a+tag@mail.sub-domain.co.uk"));
+        assertTrue(EmailSyntax.isValid("a@.b.cc"));
+        assertFalse(EmailSyntax.isValid("john.doe@example.c"));
+        assertFalse(EmailSyntax.isValid("john.doe@.com"));
+        assertFalse(EmailSyntax.isValid("@example.com"));
+        assertFalse(EmailSyntax.isValid("john@doe@example.com"));
+        assertFalse(EmailSyntax.isValid("jöhn@example.com"));
+        assertFalse(EmailSyntax.isValid("john@example.com\n"));
+    }
+
+    /* local@domain.tld built from characters around the edges of both character classes */
+    @Provide
+    Arbitrary<String> emailLikeStrings() {
+        Arbitrary<String> local = Arbitraries.strings().withChars("aZ9._%+-@#é ").ofMaxLength(6);
+        Arbitrary<String> domain = Arbitraries.strings().withChars("aZ9.-_@").ofMaxLength(6);
+        Arbitrary<String> tld = Arbitraries.strings().withChars("aZ9.-").ofMaxLength(4);
+        return Combinators.combine(local, domain, tld).as((l, d, t) -> l + "@" + d + "." + t);
+    }
+
+    @Provide
+    Arbitrary<String> emailCharacters() {
+        return Arbitraries.strings().withChars("aZ9._%+-@\n").ofMaxLength(12);
+    }
+}
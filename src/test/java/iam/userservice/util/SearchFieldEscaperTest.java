@@ -0,0 +1,78 @@
+package iam.userservice.util;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@Label("Running searchFieldEscaper tests")
+class SearchFieldEscaperTest {
+
+    @Property(tries = 5000)
+    void escape_shouldMatchReplaceChain(@ForAll("searchFields") String searchField) {
+        assertEquals(replaceChain(searchField), SearchFieldEscaper.escape(searchField));
+    }
+
+    @Property
+    void escape_shouldMatchReplaceChainForAnyString(@ForAll String searchField) {
+        assertEquals(replaceChain(searchField), SearchFieldEscaper.escape(searchField));
+    }
+
+    @Property
+    void escape_shouldReturnSameInstanceWhenNothingToEscape(@ForAll("plainSearchFields") String searchField) {
+        assertSame(searchField, SearchFieldEscaper.escape(searchField));
+    }
+
+    @Example
+    void escape_shouldHandleCommentMarkers() {
+        assertEquals("\\---", SearchFieldEscaper.escape("---"));
+        assertEquals("\\/\\*/", SearchFieldEscaper.escape("/*/"));
+        assertEquals("*\\/*", SearchFieldEscaper.escape("*/*"));
+        assertEquals("50\\%\\_off", SearchFieldEscaper.escape("50%_off"));
+    }
+
+    @Example
+    void escape_shouldReturnEmptyStringForNull() {
+        assertEquals("", SearchFieldEscaper.escape(null));
+    }
+
+    /* Mostly special characters, so that adjacent markers like '*', '/' and '-' are common */
+    @Provide
+    Arbitrary<String> searchFields() {
+        return Arbitraries.strings()
+                .withChars('\\', '%', '_', '\'', '"', ';', '-', '/', '*', '[', ']', '^', 'a', 'Z', '1', ' ')
+                .ofMaxLength(30);
+    }
+
+    @Provide
+    Arbitrary<String> plainSearchFields() {
+        return Arbitraries.strings()
+                .withCharRange('a', 'z')
+                .withChars('@', '.', ' ', '-', '/', '*')
+                .ofMinLength(1)
+                .ofMaxLength(30)
+                .filter(s -> !s.contains("--") && !s.contains("/*") && !s.contains("*/"));
+    }
+
+    /* The escaping as implemented before SearchFieldEscaper, kept as the reference behaviour */
+    private static String replaceChain(String searchField) {
+        String escaped = searchField.replace("\\", "\\\\");
+        escaped = escaped.replace("%", "\\%");
+        escaped = escaped.replace("_", "\\_");
+        return escaped.replace("'", "\\'")
+                .replace("\"", "\\\"")
+                .replace(";", "\\;")
+                .replace("--", "\\--")
+                .replace("/*", "\\/*")
+                .replace("*/", "\\*/")
+                .replace("[", "\\[")
+                .replace("]", "\\]")
+                .replace("^", "\\^");
+    }
+}
@@ -0,0 +1,86 @@
+package iam.userservice.validation;
+
+import iam.userservice.mapper.UserRequestDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static iam.userservice.service.UserValidationService.INVALID_EMAIL_ADDRESS_FORMAT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Running userValidationPipeline tests")
+class UserValidationPipelineTest {
+
+    private static final List<UserValidationRule> RULES = List.of(new EmailRule(), new NameRule(), new PhoneNumberRule());
+
+    private final UserValidationPipeline underTest = new UserValidationPipeline(RULES);
+
+    @Test
+    void validate_shouldReturnNoViolationsForValidUser() {
+        // given
+        var user = new UserRequestDto("John", "Doe", "john.doe@example.com", "1234567890");
+        // when
+        var actual = underTest.validate(user);
+        // then
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    void validate_shouldCollectEveryViolation() {
+        // given
+        var user = new UserRequestDto("J", "Doe1", "not-an-email", null);
+        // when
+        var actual = underTest.validate(user);
+        // then
+        assertEquals(List.of(
+                new UserViolation(0, EmailRule.FIELD, INVALID_EMAIL_ADDRESS_FORMAT),
+                new UserViolation(0, "firstName", NameRule.INVALID_NAME_LENGTH),
+                new UserViolation(0, "lastName", NameRule.INVALID_NAME_CHARACTERS),
+                new UserViolation(0, PhoneNumberRule.FIELD, PhoneNumberRule.PHONE_NUMBER_CANNOT_BE_NULL)
+        ), actual);
+    }
+
+    @Test
+    void validate_shouldRejectPhoneNumbersOutsideContract() {
+        // given
+        var tooShort = new UserRequestDto("John", "Doe", "john.doe@example.com", "123456789");
+        var tooLong = new UserRequestDto("John", "Doe", "john.doe@example.com", "12345678901234");
+        var letters = new UserRequestDto("John", "Doe", "john.doe@example.com", "12345ABCDE");
+        var formatted = new UserRequestDto("John", "Doe", "john.doe@example.com", "+1 (555) 010-9999");
+        // when + then
+        for (var user : List.of(tooShort, tooLong, letters, formatted)) {
+            assertEquals(List.of(new UserViolation(0, PhoneNumberRule.FIELD, PhoneNumberRule.INVALID_PHONE_NUMBER)),
+                    underTest.validate(user));
+        }
+        assertTrue(underTest.validate(new UserRequestDto("John", "Doe", "john.doe@example.com", "1234567890123")).isEmpty());
+    }
+
+    @Test
+    void validatePatch_shouldOnlyCheckPresentFields() {
+        // given
+        var phoneNumberOnly = new UserRequestDto(null, null, null, "1234567890");
+        var invalidEmail = new UserRequestDto(null, null, "not-an-email", null);
+        // when + then
+        assertTrue(underTest.validatePatch(phoneNumberOnly).isEmpty());
+        assertEquals(List.of(new UserViolation(0, EmailRule.FIELD, INVALID_EMAIL_ADDRESS_FORMAT)),
+                underTest.validatePatch(invalidEmail));
+    }
+
+    @Test
+    void validateAll_shouldReportViolationsByIndexInTheBatch() {
+        // given
+        int size = 1000;
+        List<UserRequestDto> batch = IntStream.range(0, size)
+                .mapToObj(i -> new UserRequestDto("John", "Doe", i % 97 == 0 ? "invalid" : "john" + i + "@example.com", "1234567890"))
+                .toList();
+        // when
+        var violations = underTest.validateAll(batch);
+        // then
+        assertEquals(size / 97 + 1, violations.size());
+        assertEquals(97, violations.get(1).index());
+        assertEquals(EmailRule.FIELD, violations.get(1).field());
+    }
+}